@@ -3,14 +3,18 @@ package ru.practicum.shareit.booking;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -27,7 +31,16 @@ public class BookingClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> getUserBookings(long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> getUserBookings(long userId, BookingState state, Integer from, Integer size,
+                                                  String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -52,7 +65,32 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBookingItemsByOwner(BookingState state, long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> updateAll(long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
+
+    public ResponseEntity<Object> getUserSummary(long userId) {
+        return get("/summary", userId);
+    }
+
+    public ResponseEntity<Object> getOwnerSummary(long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamOwnerBookings(long userId) {
+        return stream("/owner/stream", userId, MediaType.TEXT_EVENT_STREAM);
+    }
+
+    public ResponseEntity<Object> getBookingItemsByOwner(BookingState state, long userId, Integer from, Integer size,
+                                                         String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                "state", state.name(),
                "from", from,
@@ -2,17 +2,23 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.exeption.BookingValidateException;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -26,11 +32,12 @@ public class BookingController {
     public ResponseEntity<Object> getUserBookings(@RequestHeader("X-Sharer-User-Id") long userId,
                                                   @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                  @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getUserBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+        return bookingClient.getUserBookings(userId, state, from, size, cursor);
     }
 
     @PostMapping
@@ -58,17 +65,43 @@ public class BookingController {
         return bookingClient.update(bookingId, approved, userId);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                            @NotEmpty @Size(max = 500) @RequestBody List<@Valid BookingDecisionDto> decisions) {
+        log.info("Patch {} bookings, userId {}", decisions.size(), userId);
+        return bookingClient.updateAll(userId, decisions);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Object> getUserSummary(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Get booking summary, userId={}", userId);
+        return bookingClient.getUserSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getOwnerSummary(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Get owner booking summary, userId={}", userId);
+        return bookingClient.getOwnerSummary(userId);
+    }
+
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Stream owner bookings, userId {}", userId);
+        return bookingClient.streamOwnerBookings(userId);
+    }
+
     @GetMapping("/owner")
     public ResponseEntity<Object> getBookingItems(
             @RequestParam(defaultValue = "all", name = "state") String stateParam,
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor
     ) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get owner bookings with state {}, userId {}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookingItemsByOwner(state, userId, from, size);
+        log.info("Get owner bookings with state {}, userId {}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+        return bookingClient.getBookingItemsByOwner(state, userId, from, size, cursor);
     }
 
     private boolean validate(BookItemRequestDto bookingDto) {
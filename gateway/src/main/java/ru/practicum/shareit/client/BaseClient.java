@@ -1,5 +1,8 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
@@ -8,9 +11,13 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public class BaseClient {
     protected final RestTemplate rest;
@@ -79,6 +86,40 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId, MediaType mediaType) {
+        ClientHttpResponse response;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory()
+                    .createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+            request.getHeaders().setAccept(List.of(mediaType, MediaType.APPLICATION_JSON));
+            request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+            response = request.execute();
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getRawStatusCode());
+            if (response.getHeaders().getContentType() != null) {
+                responseBuilder.contentType(response.getHeaders().getContentType());
+            }
+            if (response.getRawStatusCode() >= 300) {
+                try (response) {
+                    byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                    return responseBuilder.body(out -> out.write(body));
+                }
+            }
+            return responseBuilder.body(out -> {
+                try (response) {
+                    InputStream in = response.getBody();
+                    byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                        out.flush();
+                    }
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
@@ -3,14 +3,18 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -32,6 +36,14 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> addAll(long userId, List<ItemDto> itemDtos) {
+        return post("/batch", userId, itemDtos);
+    }
+
+    public ResponseEntity<Object> updateAll(long userId, List<ItemDto> itemDtos) {
+        return patch("/batch", userId, itemDtos);
+    }
+
     public ResponseEntity<Object> update(long userId, ItemDto itemDto, long itemId) {
         return patch("/" + itemId, userId, itemDto);
     }
@@ -40,7 +52,14 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItemsByUserId(long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getItemsByUserId(long userId, Integer from, Integer size, Long after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "after", after,
+                    "size", size
+            );
+            return get("?after={after}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -48,6 +67,10 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<StreamingResponseBody> export(long userId) {
+        return stream("/export", userId, MediaType.APPLICATION_NDJSON);
+    }
+
     public ResponseEntity<Object> getSearch(String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
@@ -57,7 +80,48 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
+    public ResponseEntity<Object> getSearchAvailable(String text, LocalDateTime start, LocalDateTime end,
+                                                     Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "start", start,
+                "end", end,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", null, parameters);
+    }
+
     public ResponseEntity<Object> addComment(CommentDto commentDto, long userId, long itemId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    public ResponseEntity<Object> getComments(long itemId, String cursor, Integer size) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get("/" + itemId + "/comments?cursor={cursor}&size={size}", null, parameters);
+        }
+        Map<String, Object> parameters = Map.of(
+                "size", size
+        );
+        return get("/" + itemId + "/comments?size={size}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getMatchingRequests(long itemId, long userId, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "size", size
+        );
+        return get("/" + itemId + "/matching-requests?size={size}", userId, parameters);
+    }
 }
@@ -2,16 +2,22 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -30,6 +36,22 @@ public class ItemController {
         return itemClient.add(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> addAll(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @NotEmpty @Size(max = 500) @RequestBody List<ItemDto> itemDtos
+    ) {
+        return itemClient.addAll(userId, itemDtos);
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateAll(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @NotEmpty @Size(max = 500) @RequestBody List<ItemDto> itemDtos
+    ) {
+        return itemClient.updateAll(userId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> update(
             @RequestHeader("X-Sharer-User-Id") long userId,
@@ -49,17 +71,31 @@ public class ItemController {
     public ResponseEntity<Object> getItemsByUserId(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @Positive @RequestParam(name = "after", required = false) Long after
     ) {
-        return itemClient.getItemsByUserId(userId, from, size);
+        return itemClient.getItemsByUserId(userId, from, size, after);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemClient.export(userId);
     }
 
     @GetMapping("/search")
     public ResponseEntity<Object> getSearch(@RequestParam(name = "text") String text,
                                             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-                                            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size
+                                            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                            @RequestParam(name = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                            @RequestParam(name = "end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
     ) {
-        return itemClient.getSearch(text, from, size);
+        if (start == null && end == null) {
+            return itemClient.getSearch(text, from, size);
+        }
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Parameter start must be before end");
+        }
+        return itemClient.getSearchAvailable(text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -68,4 +104,28 @@ public class ItemController {
                                              @Valid @RequestBody CommentDto commentDto) {
         return itemClient.addComment(commentDto, userId, itemId);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable long itemId,
+                                              @RequestParam(name = "cursor", required = false) String cursor,
+                                              @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        return itemClient.getComments(itemId, cursor, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable long itemId,
+                                                  @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Parameter from must be before to");
+        }
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/{itemId}/matching-requests")
+    public ResponseEntity<Object> getMatchingRequests(@PathVariable long itemId,
+                                                      @RequestHeader("X-Sharer-User-Id") long userId,
+                                                      @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        return itemClient.getMatchingRequests(itemId, userId, size);
+    }
 }
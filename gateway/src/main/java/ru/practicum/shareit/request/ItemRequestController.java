@@ -2,10 +2,12 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -40,9 +42,10 @@ public class ItemRequestController {
     public ResponseEntity<Object> getRequests(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor
     ) {
-        return requestClient.getRequests(userId, from, size);
+        return requestClient.getRequests(userId, from, size, cursor);
     }
 
     @GetMapping("/{requestId}")
@@ -52,4 +55,13 @@ public class ItemRequestController {
     ) {
         return requestClient.getRequestById(requestId, userId);
     }
+
+    @GetMapping(path = "/{requestId}/answers/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAnswers(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PathVariable long requestId,
+            @PositiveOrZero @RequestParam(name = "after", defaultValue = "0") long after
+    ) {
+        return requestClient.streamAnswers(requestId, userId, after);
+    }
 }
@@ -3,9 +3,11 @@ package ru.practicum.shareit.request;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -35,15 +37,26 @@ public class RequestClient extends BaseClient {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getRequests(long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getRequests(long userId, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get("/all?cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all", userId, parameters);
+        return get("/all?from={from}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> getRequestById(long requestId, long userId) {
         return get("/" + requestId, userId);
     }
+
+    public ResponseEntity<StreamingResponseBody> streamAnswers(long requestId, long userId, long after) {
+        return stream("/" + requestId + "/answers/stream?after=" + after, userId, MediaType.TEXT_EVENT_STREAM);
+    }
 }
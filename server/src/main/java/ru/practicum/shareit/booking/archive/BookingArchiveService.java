@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingOutput;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingArchiveService {
+
+    int archive(LocalDateTime cutoff, int limit);
+
+    LocalDateTime getHorizon();
+
+    boolean reachesArchive(List<BookingOutput> hotPage, Pageable pageable);
+
+    List<BookingOutput> findByBooker(long bookerId, LocalDateTime endBefore, Collection<BookingStatus> statuses,
+                                     List<BookingOutput> hotPage, KeysetCursor before, Pageable pageable);
+
+    List<BookingOutput> findByOwner(long ownerId, LocalDateTime endBefore, Collection<BookingStatus> statuses,
+                                    List<BookingOutput> hotPage, KeysetCursor before, Pageable pageable);
+}
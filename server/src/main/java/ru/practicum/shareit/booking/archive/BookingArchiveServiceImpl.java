@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.dto.BookingOutput;
+import ru.practicum.shareit.booking.dto.BookingOutputView;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class BookingArchiveServiceImpl implements BookingArchiveService {
+
+    private static final KeysetCursor NO_LOWER_BOUND = new KeysetCursor(LocalDateTime.of(1, 1, 1, 0, 0), 0);
+    private static final Comparator<BookingOutput> NEWEST_FIRST = Comparator
+            .comparing(BookingOutput::getStart)
+            .thenComparingLong(BookingOutput::getId)
+            .reversed();
+
+    private final BookingRepository repository;
+    private final ItemBookingSummaryRepository summaryRepository;
+
+    @Value("${shareit.booking-archive.retention-months:12}")
+    private int retentionMonths;
+
+    @Override
+    @Transactional
+    public int archive(LocalDateTime cutoff, int limit) {
+        List<Long> ids = repository.findArchivableIds(cutoff, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        repository.copyToArchive(ids);
+        summaryRepository.moveLastBookingsToArchive(ids);
+        return repository.deleteByIds(ids);
+    }
+
+    @Override
+    public LocalDateTime getHorizon() {
+        return LocalDateTime.now().minusMonths(retentionMonths);
+    }
+
+    @Override
+    public boolean reachesArchive(List<BookingOutput> hotPage, Pageable pageable) {
+        return hotPage.size() < pageable.getPageSize()
+                || hotPage.get(hotPage.size() - 1).getStart().isBefore(getHorizon());
+    }
+
+    @Override
+    @Transactional
+    public List<BookingOutput> findByBooker(long bookerId, LocalDateTime endBefore,
+                                            Collection<BookingStatus> statuses, List<BookingOutput> hotPage,
+                                            KeysetCursor before, Pageable pageable) {
+        if (pageable.getOffset() > 0) {
+            return repository.existsArchivedByBookerId(bookerId)
+                    ? map(repository.findWithArchiveByBookerId(bookerId, endBefore, names(statuses),
+                    before.getTimestamp(), before.getId(), pageable))
+                    : hotPage;
+        }
+        KeysetCursor after = lowerBound(hotPage, pageable);
+        return merge(hotPage, map(repository.findArchivedByBookerId(bookerId, endBefore, names(statuses),
+                before.getTimestamp(), before.getId(), after.getTimestamp(), after.getId(), pageable)), pageable);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingOutput> findByOwner(long ownerId, LocalDateTime endBefore,
+                                           Collection<BookingStatus> statuses, List<BookingOutput> hotPage,
+                                           KeysetCursor before, Pageable pageable) {
+        if (pageable.getOffset() > 0) {
+            return repository.existsArchivedByOwnerId(ownerId)
+                    ? map(repository.findWithArchiveByOwnerId(ownerId, endBefore, names(statuses),
+                    before.getTimestamp(), before.getId(), pageable))
+                    : hotPage;
+        }
+        KeysetCursor after = lowerBound(hotPage, pageable);
+        return merge(hotPage, map(repository.findArchivedByOwnerId(ownerId, endBefore, names(statuses),
+                before.getTimestamp(), before.getId(), after.getTimestamp(), after.getId(), pageable)), pageable);
+    }
+
+    private static KeysetCursor lowerBound(List<BookingOutput> hotPage, Pageable pageable) {
+        if (hotPage.size() < pageable.getPageSize()) {
+            return NO_LOWER_BOUND;
+        }
+        BookingOutput last = hotPage.get(hotPage.size() - 1);
+        return new KeysetCursor(last.getStart(), last.getId());
+    }
+
+    private static List<BookingOutput> merge(List<BookingOutput> hotPage, List<BookingOutput> archived,
+                                             Pageable pageable) {
+        if (archived.isEmpty()) {
+            return hotPage;
+        }
+        return Stream.concat(hotPage.stream(), archived.stream())
+                .sorted(NEWEST_FIRST)
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> names(Collection<BookingStatus> statuses) {
+        return statuses.stream()
+                .map(BookingStatus::name)
+                .collect(Collectors.toList());
+    }
+
+    private static List<BookingOutput> map(List<BookingOutputView> views) {
+        return views.stream()
+                .map(BookingMapper::mapToBookingOutput)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.archive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+public class BookingArchiver {
+
+    private final BookingArchiveService archiveService;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter archived;
+
+    public BookingArchiver(BookingArchiveService archiveService,
+                           @Value("${shareit.booking-archive.batch-size:1000}") int batchSize,
+                           @Value("${shareit.booking-archive.max-batches:50}") int maxBatches,
+                           MeterRegistry registry) {
+        this.archiveService = archiveService;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.archived = Counter.builder("shareit.booking.archived")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-archive.sweep-interval-ms:3600000}")
+    public int archive() {
+        LocalDateTime cutoff = archiveService.getHorizon();
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int moved = archiveService.archive(cutoff, batchSize);
+            total += moved;
+            archived.increment(moved);
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} bookings that ended before {}", total, cutoff);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+public class BookingPartitionManager {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("bookings_p(\\d{6})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private volatile Boolean postgres;
+
+    public BookingPartitionManager(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${shareit.booking-partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(cron = "${shareit.booking-partitions.cron:0 0 3 * * *}")
+    public void maintain() {
+        if (!isPostgres()) {
+            return;
+        }
+        if (!isPartitioned()) {
+            log.info("bookings is not partitioned; apply db/partition-bookings.sql to enable partition maintenance");
+            return;
+        }
+        YearMonth horizon = YearMonth.now().plusMonths(monthsAhead);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(hashtext('bookings_partitions'))");
+            extend(horizon);
+        });
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_partitioned_table " +
+                "WHERE partrelid = to_regclass('bookings')", Integer.class);
+        return count != null && count > 0;
+    }
+
+    private void extend(YearMonth horizon) {
+        Optional<YearMonth> last = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = 'bookings'::regclass", String.class)
+                .stream()
+                .map(MONTHLY_PARTITION::matcher)
+                .filter(Matcher::matches)
+                .map(matcher -> YearMonth.parse(matcher.group(1), SUFFIX))
+                .max(YearMonth::compareTo);
+        if (last.isEmpty() || !last.get().plusMonths(1).isBefore(horizon)) {
+            return;
+        }
+        log.info("Extending bookings partitions from {} to {}", last.get().plusMonths(1), horizon);
+        jdbcTemplate.execute("ALTER TABLE bookings DETACH PARTITION bookings_future");
+        jdbcTemplate.execute("ALTER TABLE bookings_future RENAME TO bookings_future_detached");
+        createMonthly(last.get().plusMonths(1), horizon);
+        createFuture(horizon);
+        jdbcTemplate.execute("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings_future_detached");
+        jdbcTemplate.execute("DROP TABLE bookings_future_detached");
+    }
+
+    private void createMonthly(YearMonth from, YearMonth to) {
+        for (YearMonth month = from; month.isBefore(to); month = month.plusMonths(1)) {
+            jdbcTemplate.execute(String.format("CREATE TABLE IF NOT EXISTS bookings_p%s PARTITION OF bookings " +
+                    "FOR VALUES FROM ('%s') TO ('%s')", month.format(SUFFIX), month.atDay(1),
+                    month.plusMonths(1).atDay(1)));
+        }
+    }
+
+    private void createFuture(YearMonth from) {
+        jdbcTemplate.execute(String.format("CREATE TABLE bookings_future PARTITION OF bookings " +
+                "FOR VALUES FROM ('%s') TO (MAXVALUE)", from.atDay(1)));
+    }
+}
@@ -1,11 +1,20 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutput;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.stream.OwnerBookingStream;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
 
@@ -14,7 +23,11 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService service;
+    private final UserService userService;
+    private final OwnerBookingStream ownerBookingStream;
 
     @PostMapping
     public BookingOutput add(@RequestBody BookingDto bookingDto,
@@ -29,6 +42,28 @@ public class BookingController {
         return service.update(bookingId, approved, userId);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingBatchResultDto> updateAll(@RequestBody List<BookingDecisionDto> decisions,
+                                                 @RequestHeader("X-Sharer-User-Id") long userId) {
+        return service.updateAll(userId, decisions);
+    }
+
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId) {
+        userService.getById(userId);
+        return ownerBookingStream.subscribe(userId);
+    }
+
+    @GetMapping("/summary")
+    public BookingSummaryDto getUserSummary(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return service.getUserSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getOwnerSummary(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return service.getOwnerSummary(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingOutput getBooking(@PathVariable long bookingId,
                                     @RequestHeader("X-Sharer-User-Id") long userId) {
@@ -36,24 +71,35 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingOutput> getUserBookings(
+    public ResponseEntity<List<BookingOutput>> getUserBookings(
             @RequestParam(name = "state", defaultValue = "ALL", required = false) String value,
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "from", defaultValue = "0", required = false) int from,
-            @RequestParam(name = "size", required = false) Integer size
+            @RequestParam(name = "size", required = false) Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor
     ) {
         BookingState state = BookingState.from(value);
-        return service.getUserBookings(state, userId, from, size);
+        return withNextCursor(service.getUserBookings(state, userId, from, size, cursor), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingOutput> getBookingItems(
+    public ResponseEntity<List<BookingOutput>> getBookingItems(
             @RequestParam(defaultValue = "ALL", required = false, name = "state") String value,
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "from", defaultValue = "0", required = false) int from,
-            @RequestParam(name = "size", required = false) Integer size
+            @RequestParam(name = "size", required = false) Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor
     ) {
         BookingState state = BookingState.from(value);
-        return service.getBookingItemsByOwner(state, userId, from, size);
+        return withNextCursor(service.getBookingItemsByOwner(state, userId, from, size, cursor), size);
+    }
+
+    private ResponseEntity<List<BookingOutput>> withNextCursor(List<BookingOutput> bookings, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (size != null && bookings.size() == size) {
+            BookingOutput last = bookings.get(bookings.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, new KeysetCursor(last.getStart(), last.getId()).encode());
+        }
+        return response.body(bookings);
     }
 }
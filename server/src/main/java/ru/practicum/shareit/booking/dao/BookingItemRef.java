@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.dao;
+
+public interface BookingItemRef {
+
+    Long getId();
+
+    Long getItemId();
+}
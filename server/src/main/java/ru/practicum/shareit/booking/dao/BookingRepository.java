@@ -1,21 +1,398 @@
 package ru.practicum.shareit.booking.dao;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingOutput;
+import ru.practicum.shareit.booking.dto.BookingOutputView;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.cache.BookingInterval;
 
+import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(long id);
+    @Query(value = "select case when exists (select 1 from bookings " +
+            "where booker_id = :bookerId and item_id = :itemId and end_date < :endBefore) " +
+            "or exists (select 1 from bookings_archive " +
+            "where booker_id = :bookerId and item_id = :itemId and end_date < :endBefore) " +
+            "then true else false end",
+            nativeQuery = true)
+    boolean existsFinishedByBookerIdAndItemId(@Param("bookerId") long bookerId,
+                                              @Param("itemId") long itemId,
+                                              @Param("endBefore") LocalDateTime endBefore);
 
-    Booking findByBookerIdAndItem_IdAndEndBefore(long userId, long itemId, LocalDateTime time);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOutput(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.ownerId, i.requestId, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where u.id = :bookerId " +
+            "and b.start <= :beforeStart and (b.start < :beforeStart or b.id < :beforeId) " +
+            "order by b.start desc, b.id desc")
+    List<BookingOutput> findAllByBookerId(@Param("bookerId") long bookerId,
+                                           @Param("beforeStart") LocalDateTime beforeStart,
+                                           @Param("beforeId") long beforeId,
+                                           Pageable pageable);
 
-    List<Booking> findAllByItem_OwnerIdOrderByStartDesc(long id);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOutput(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.ownerId, i.requestId, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where u.id = :bookerId and b.start < :now and b.end > :now " +
+            "and b.start <= :beforeStart and (b.start < :beforeStart or b.id < :beforeId) " +
+            "order by b.start desc, b.id desc")
+    List<BookingOutput> findCurrentByBookerId(@Param("bookerId") long bookerId,
+                                              @Param("now") LocalDateTime now,
+                                              @Param("beforeStart") LocalDateTime beforeStart,
+                                              @Param("beforeId") long beforeId,
+                                              Pageable pageable);
 
-    Booking findByItem_IdAndEndBeforeAndStatusNotOrderByEndDesc(long itemId, LocalDateTime end, BookingStatus status);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOutput(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.ownerId, i.requestId, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where u.id = :bookerId and b.end < :now " +
+            "and b.start <= :beforeStart and (b.start < :beforeStart or b.id < :beforeId) " +
+            "order by b.start desc, b.id desc")
+    List<BookingOutput> findPastByBookerId(@Param("bookerId") long bookerId,
+                                           @Param("now") LocalDateTime now,
+                                           @Param("beforeStart") LocalDateTime beforeStart,
+                                           @Param("beforeId") long beforeId,
+                                           Pageable pageable);
 
-    Booking findByItem_IdAndStatusAndStartAfterOrderByStartAsc(long itemId, BookingStatus status, LocalDateTime start);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOutput(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.ownerId, i.requestId, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where u.id = :bookerId and b.start > :now and b.status <> :excluded " +
+            "and b.start <= :beforeStart and (b.start < :beforeStart or b.id < :beforeId) " +
+            "order by b.start desc, b.id desc")
+    List<BookingOutput> findFutureByBookerId(@Param("bookerId") long bookerId,
+                                             @Param("now") LocalDateTime now,
+                                             @Param("excluded") BookingStatus excluded,
+                                             @Param("beforeStart") LocalDateTime beforeStart,
+                                             @Param("beforeId") long beforeId,
+                                             Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOutput(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.ownerId, i.requestId, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where u.id = :bookerId and b.status = :status " +
+            "and b.start <= :beforeStart and (b.start < :beforeStart or b.id < :beforeId) " +
+            "order by b.start desc, b.id desc")
+    List<BookingOutput> findAllByBookerIdAndStatus(@Param("bookerId") long bookerId,
+                                                   @Param("status") BookingStatus status,
+                                                   @Param("beforeStart") LocalDateTime beforeStart,
+                                                   @Param("beforeId") long beforeId,
+                                                   Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOutput(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.ownerId, i.requestId, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where i.ownerId = :ownerId " +
+            "and b.start <= :beforeStart and (b.start < :beforeStart or b.id < :beforeId) " +
+            "order by b.start desc, b.id desc")
+    List<BookingOutput> findAllByOwnerId(@Param("ownerId") long ownerId,
+                                          @Param("beforeStart") LocalDateTime beforeStart,
+                                          @Param("beforeId") long beforeId,
+                                          Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOutput(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.ownerId, i.requestId, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where i.ownerId = :ownerId and b.start < :now and b.end > :now " +
+            "and b.start <= :beforeStart and (b.start < :beforeStart or b.id < :beforeId) " +
+            "order by b.start desc, b.id desc")
+    List<BookingOutput> findCurrentByOwnerId(@Param("ownerId") long ownerId,
+                                             @Param("now") LocalDateTime now,
+                                             @Param("beforeStart") LocalDateTime beforeStart,
+                                             @Param("beforeId") long beforeId,
+                                             Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOutput(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.ownerId, i.requestId, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where i.ownerId = :ownerId and b.end < :now " +
+            "and b.start <= :beforeStart and (b.start < :beforeStart or b.id < :beforeId) " +
+            "order by b.start desc, b.id desc")
+    List<BookingOutput> findPastByOwnerId(@Param("ownerId") long ownerId,
+                                          @Param("now") LocalDateTime now,
+                                          @Param("beforeStart") LocalDateTime beforeStart,
+                                          @Param("beforeId") long beforeId,
+                                          Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOutput(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.ownerId, i.requestId, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where i.ownerId = :ownerId and b.start > :now and b.status <> :excluded " +
+            "and b.start <= :beforeStart and (b.start < :beforeStart or b.id < :beforeId) " +
+            "order by b.start desc, b.id desc")
+    List<BookingOutput> findFutureByOwnerId(@Param("ownerId") long ownerId,
+                                            @Param("now") LocalDateTime now,
+                                            @Param("excluded") BookingStatus excluded,
+                                            @Param("beforeStart") LocalDateTime beforeStart,
+                                            @Param("beforeId") long beforeId,
+                                            Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOutput(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.ownerId, i.requestId, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where i.ownerId = :ownerId and b.status = :status " +
+            "and b.start <= :beforeStart and (b.start < :beforeStart or b.id < :beforeId) " +
+            "order by b.start desc, b.id desc")
+    List<BookingOutput> findAllByOwnerIdAndStatus(@Param("ownerId") long ownerId,
+                                                  @Param("status") BookingStatus status,
+                                                  @Param("beforeStart") LocalDateTime beforeStart,
+                                                  @Param("beforeId") long beforeId,
+                                                  Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingSummaryDto(count(b), " +
+            "count(case when b.start < :now and b.end > :now then 1 end), " +
+            "count(case when b.end < :now then 1 end), " +
+            "count(case when b.start > :now and b.status <> :rejected then 1 end), " +
+            "count(case when b.status = :waiting then 1 end), " +
+            "count(case when b.status = :rejected then 1 end)) " +
+            "from Booking b where b.booker.id = :bookerId")
+    BookingSummaryDto summarizeByBookerId(@Param("bookerId") long bookerId,
+                                          @Param("now") LocalDateTime now,
+                                          @Param("waiting") BookingStatus waiting,
+                                          @Param("rejected") BookingStatus rejected);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingSummaryDto(count(b), " +
+            "count(case when b.start < :now and b.end > :now then 1 end), " +
+            "count(case when b.end < :now then 1 end), " +
+            "count(case when b.start > :now and b.status <> :rejected then 1 end), " +
+            "count(case when b.status = :waiting then 1 end), " +
+            "count(case when b.status = :rejected then 1 end)) " +
+            "from Booking b join b.item i where i.ownerId = :ownerId")
+    BookingSummaryDto summarizeByOwnerId(@Param("ownerId") long ownerId,
+                                         @Param("now") LocalDateTime now,
+                                         @Param("waiting") BookingStatus waiting,
+                                         @Param("rejected") BookingStatus rejected);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingSummaryDto(count(a), 0L, count(a), 0L, " +
+            "count(case when a.status = :waiting then 1 end), " +
+            "count(case when a.status = :rejected then 1 end)) " +
+            "from ArchivedBooking a where a.bookerId = :bookerId")
+    BookingSummaryDto summarizeArchivedByBookerId(@Param("bookerId") long bookerId,
+                                                  @Param("waiting") BookingStatus waiting,
+                                                  @Param("rejected") BookingStatus rejected);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingSummaryDto(count(a), 0L, count(a), 0L, " +
+            "count(case when a.status = :waiting then 1 end), " +
+            "count(case when a.status = :rejected then 1 end)) " +
+            "from ArchivedBooking a, Item i where i.id = a.itemId and i.ownerId = :ownerId")
+    BookingSummaryDto summarizeArchivedByOwnerId(@Param("ownerId") long ownerId,
+                                                 @Param("waiting") BookingStatus waiting,
+                                                 @Param("rejected") BookingStatus rejected);
+
+    @Query(value = "select b.id as id, b.start_date as startDate, b.end_date as endDate, b.status as status, " +
+            "b.item_id as itemId, b.item_name as itemName, b.item_description as itemDescription, " +
+            "b.item_available as itemAvailable, b.item_owner_id as itemOwnerId, b.item_request_id as itemRequestId, " +
+            "b.booker_id as bookerId, b.booker_name as bookerName, b.booker_email as bookerEmail " +
+            "from (select h.id, h.start_date, h.end_date, h.status, i.id as item_id, i.name as item_name, " +
+            "i.description as item_description, i.is_available as item_available, i.owner_id as item_owner_id, " +
+            "i.request_id as item_request_id, u.id as booker_id, u.name as booker_name, u.email as booker_email " +
+            "from bookings h join items i on i.id = h.item_id join users u on u.id = h.booker_id " +
+            "where h.booker_id = :bookerId and h.end_date < :endBefore and h.status in (:statuses) " +
+            "and h.start_date <= :beforeStart and (h.start_date < :beforeStart or h.id < :beforeId) " +
+            "union all " +
+            "select a.id, a.start_date, a.end_date, a.status, i.id, i.name, i.description, i.is_available, " +
+            "i.owner_id, i.request_id, u.id, u.name, u.email " +
+            "from bookings_archive a join items i on i.id = a.item_id join users u on u.id = a.booker_id " +
+            "where a.booker_id = :bookerId and a.end_date < :endBefore and a.status in (:statuses) " +
+            "and a.start_date <= :beforeStart and (a.start_date < :beforeStart or a.id < :beforeId)) b " +
+            "order by b.start_date desc, b.id desc",
+            nativeQuery = true)
+    List<BookingOutputView> findWithArchiveByBookerId(@Param("bookerId") long bookerId,
+                                                      @Param("endBefore") LocalDateTime endBefore,
+                                                      @Param("statuses") Collection<String> statuses,
+                                                      @Param("beforeStart") LocalDateTime beforeStart,
+                                                      @Param("beforeId") long beforeId,
+                                                      Pageable pageable);
+
+    @Query(value = "select b.id as id, b.start_date as startDate, b.end_date as endDate, b.status as status, " +
+            "b.item_id as itemId, b.item_name as itemName, b.item_description as itemDescription, " +
+            "b.item_available as itemAvailable, b.item_owner_id as itemOwnerId, b.item_request_id as itemRequestId, " +
+            "b.booker_id as bookerId, b.booker_name as bookerName, b.booker_email as bookerEmail " +
+            "from (select h.id, h.start_date, h.end_date, h.status, i.id as item_id, i.name as item_name, " +
+            "i.description as item_description, i.is_available as item_available, i.owner_id as item_owner_id, " +
+            "i.request_id as item_request_id, u.id as booker_id, u.name as booker_name, u.email as booker_email " +
+            "from bookings h join items i on i.id = h.item_id join users u on u.id = h.booker_id " +
+            "where i.owner_id = :ownerId and h.end_date < :endBefore and h.status in (:statuses) " +
+            "and h.start_date <= :beforeStart and (h.start_date < :beforeStart or h.id < :beforeId) " +
+            "union all " +
+            "select a.id, a.start_date, a.end_date, a.status, i.id, i.name, i.description, i.is_available, " +
+            "i.owner_id, i.request_id, u.id, u.name, u.email " +
+            "from bookings_archive a join items i on i.id = a.item_id join users u on u.id = a.booker_id " +
+            "where i.owner_id = :ownerId and a.end_date < :endBefore and a.status in (:statuses) " +
+            "and a.start_date <= :beforeStart and (a.start_date < :beforeStart or a.id < :beforeId)) b " +
+            "order by b.start_date desc, b.id desc",
+            nativeQuery = true)
+    List<BookingOutputView> findWithArchiveByOwnerId(@Param("ownerId") long ownerId,
+                                                     @Param("endBefore") LocalDateTime endBefore,
+                                                     @Param("statuses") Collection<String> statuses,
+                                                     @Param("beforeStart") LocalDateTime beforeStart,
+                                                     @Param("beforeId") long beforeId,
+                                                     Pageable pageable);
+
+    @Query(value = "select a.id as id, a.start_date as startDate, a.end_date as endDate, a.status as status, " +
+            "i.id as itemId, i.name as itemName, i.description as itemDescription, i.is_available as itemAvailable, " +
+            "i.owner_id as itemOwnerId, i.request_id as itemRequestId, " +
+            "u.id as bookerId, u.name as bookerName, u.email as bookerEmail " +
+            "from bookings_archive a join items i on i.id = a.item_id join users u on u.id = a.booker_id " +
+            "where a.booker_id = :bookerId and a.end_date < :endBefore and a.status in (:statuses) " +
+            "and a.start_date <= :beforeStart and (a.start_date < :beforeStart or a.id < :beforeId) " +
+            "and a.start_date >= :afterStart and (a.start_date > :afterStart or a.id > :afterId) " +
+            "order by a.start_date desc, a.id desc",
+            nativeQuery = true)
+    List<BookingOutputView> findArchivedByBookerId(@Param("bookerId") long bookerId,
+                                                   @Param("endBefore") LocalDateTime endBefore,
+                                                   @Param("statuses") Collection<String> statuses,
+                                                   @Param("beforeStart") LocalDateTime beforeStart,
+                                                   @Param("beforeId") long beforeId,
+                                                   @Param("afterStart") LocalDateTime afterStart,
+                                                   @Param("afterId") long afterId,
+                                                   Pageable pageable);
+
+    @Query(value = "select a.id as id, a.start_date as startDate, a.end_date as endDate, a.status as status, " +
+            "i.id as itemId, i.name as itemName, i.description as itemDescription, i.is_available as itemAvailable, " +
+            "i.owner_id as itemOwnerId, i.request_id as itemRequestId, " +
+            "u.id as bookerId, u.name as bookerName, u.email as bookerEmail " +
+            "from bookings_archive a join items i on i.id = a.item_id join users u on u.id = a.booker_id " +
+            "where i.owner_id = :ownerId and a.end_date < :endBefore and a.status in (:statuses) " +
+            "and a.start_date <= :beforeStart and (a.start_date < :beforeStart or a.id < :beforeId) " +
+            "and a.start_date >= :afterStart and (a.start_date > :afterStart or a.id > :afterId) " +
+            "order by a.start_date desc, a.id desc",
+            nativeQuery = true)
+    List<BookingOutputView> findArchivedByOwnerId(@Param("ownerId") long ownerId,
+                                                  @Param("endBefore") LocalDateTime endBefore,
+                                                  @Param("statuses") Collection<String> statuses,
+                                                  @Param("beforeStart") LocalDateTime beforeStart,
+                                                  @Param("beforeId") long beforeId,
+                                                  @Param("afterStart") LocalDateTime afterStart,
+                                                  @Param("afterId") long afterId,
+                                                  Pageable pageable);
+
+    @Query(value = "select case when exists (select 1 from bookings_archive where booker_id = :bookerId) " +
+            "then true else false end",
+            nativeQuery = true)
+    boolean existsArchivedByBookerId(@Param("bookerId") long bookerId);
+
+    @Query(value = "select case when exists (select 1 from bookings_archive a join items i on i.id = a.item_id " +
+            "where i.owner_id = :ownerId) then true else false end",
+            nativeQuery = true)
+    boolean existsArchivedByOwnerId(@Param("ownerId") long ownerId);
+
+    @Query(value = "select id from bookings where end_date < :cutoff order by id limit :limit for update",
+            nativeQuery = true)
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "insert into bookings_archive (id, start_date, end_date, item_id, booker_id, status) " +
+            "select id, start_date, end_date, item_id, booker_id, status from bookings where id in :ids",
+            nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Booking b where b.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.id in :ids")
+    List<Booking> findAllWithItemByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOutput(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.ownerId, i.requestId, u.id, u.name, u.email) " +
+            "from Booking b join b.item i join b.booker u " +
+            "where b.id in :ids and i.ownerId in :ownerIds " +
+            "order by b.id")
+    List<BookingOutput> findAllByIdInAndOwnerIdIn(@Param("ids") Collection<Long> ids,
+                                                  @Param("ownerIds") Collection<Long> ownerIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status where b.id in :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status);
+
+    @Query(value = "select id, item_id as itemId from bookings " +
+            "where status = 'WAITING' and start_date < :now order by id limit :limit for update",
+            nativeQuery = true)
+    List<BookingItemRef> findStartedWaiting(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Transactional
+    default List<BookingItemRef> expireWaiting(LocalDateTime now, int limit) {
+        List<BookingItemRef> expired = findStartedWaiting(now, limit);
+        if (!expired.isEmpty()) {
+            updateStatus(expired.stream()
+                    .map(BookingItemRef::getId)
+                    .collect(Collectors.toList()), BookingStatus.REJECTED);
+        }
+        return expired;
+    }
+
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses and b.start < :end and b.end > :start")
+    boolean existsOverlapping(@Param("itemId") long itemId,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end,
+                              @Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses and b.start < :end and b.end > :start " +
+            "and b.id not in :bookingIds")
+    boolean existsOverlappingExcept(@Param("itemId") long itemId,
+                                    @Param("start") LocalDateTime start,
+                                    @Param("end") LocalDateTime end,
+                                    @Param("statuses") Collection<BookingStatus> statuses,
+                                    @Param("bookingIds") Collection<Long> bookingIds);
+
+    @Query("select new ru.practicum.shareit.item.cache.BookingInterval(b.id, b.start, b.end) from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses")
+    List<BookingInterval> findIntervalsByItemId(@Param("itemId") long itemId,
+                                                @Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query("select distinct b.item.id from Booking b " +
+            "where b.item.id in :itemIds and b.status in :statuses and b.start < :end and b.end > :start")
+    List<Long> findBookedItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                 @Param("start") LocalDateTime start,
+                                 @Param("end") LocalDateTime end,
+                                 @Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query("select b.item.id as itemId, min(b.end) as nearestEnd from Booking b " +
+            "where b.item.id in :itemIds and b.status <> :status and b.end > :now " +
+            "group by b.item.id")
+    List<ItemBookingEnd> findNearestEndsAfter(@Param("itemIds") Collection<Long> itemIds,
+                                              @Param("now") LocalDateTime now,
+                                              @Param("status") BookingStatus status);
+
+    @Query("select distinct b.item.id from Booking b where b.booker.id = :bookerId")
+    List<Long> findItemIdsByBookerId(@Param("bookerId") long bookerId);
+
+    @Query("select b from Booking b join fetch b.item join fetch b.booker " +
+            "where b.item.id in :itemIds and b.status <> :status and b.end < :now " +
+            "and b.end = (select max(l.end) from Booking l " +
+            "where l.item.id = b.item.id and l.status <> :status and l.end < :now)")
+    List<Booking> findLastBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("now") LocalDateTime now,
+                                            @Param("status") BookingStatus status);
+
+    @Query("select a from ArchivedBooking a " +
+            "where a.itemId in :itemIds and a.status <> :status and a.end < :now " +
+            "and a.end = (select max(l.end) from ArchivedBooking l " +
+            "where l.itemId = a.itemId and l.status <> :status and l.end < :now)")
+    List<ArchivedBooking> findLastArchivedByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                    @Param("now") LocalDateTime now,
+                                                    @Param("status") BookingStatus status);
+
+    @Query("select b from Booking b join fetch b.item join fetch b.booker " +
+            "where b.item.id in :itemIds and b.status = :status and b.start > :now " +
+            "and b.start = (select min(n.start) from Booking n " +
+            "where n.item.id = b.item.id and n.status = :status and n.start > :now)")
+    List<Booking> findNextBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                            @Param("status") BookingStatus status,
+                                            @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.dao;
+
+import java.time.LocalDateTime;
+
+public interface ItemBookingEnd {
+
+    Long getItemId();
+
+    LocalDateTime getNearestEnd();
+}
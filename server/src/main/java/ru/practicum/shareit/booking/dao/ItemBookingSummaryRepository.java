@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("select s from ItemBookingSummary s " +
+            "left join fetch s.lastBooking lb left join fetch lb.item left join fetch lb.booker " +
+            "left join fetch s.lastArchivedBooking " +
+            "left join fetch s.nextBooking nb left join fetch nb.item left join fetch nb.booker " +
+            "where s.itemId in :itemIds")
+    List<ItemBookingSummary> findAllByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("select s.itemId from ItemBookingSummary s where s.refreshAt <= :now order by s.refreshAt")
+    List<Long> findExpiredItemIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("update ItemBookingSummary s set s.refreshAt = :now where s.itemId in :itemIds")
+    int expireByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "update item_booking_summary set last_archived_booking_id = last_booking_id, " +
+            "last_booking_id = null, last_booking_end = null " +
+            "where last_booking_id in (:bookingIds)",
+            nativeQuery = true)
+    int moveLastBookingsToArchive(@Param("bookingIds") Collection<Long> bookingIds);
+}
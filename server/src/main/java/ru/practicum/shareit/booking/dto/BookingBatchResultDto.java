@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BookingBatchResultDto {
+
+    private int index;
+    private long bookingId;
+    private BookingBatchStatus status;
+    private BookingOutput booking;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingItemDto {
+
+    private long id;
+    private String name;
+    private String description;
+    private Boolean available;
+    private long ownerId;
+    private Long requestId;
+}
@@ -1,21 +1,29 @@
 package ru.practicum.shareit.booking.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class BookingOutput {
 
     private long id;
     private LocalDateTime start;
     private LocalDateTime end;
-    private Item item;
-    private User booker;
+    private BookingItemDto item;
+    private BookerDto booker;
     private BookingStatus status;
+
+    public BookingOutput(long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                         long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                         long itemOwnerId, Long itemRequestId, long bookerId, String bookerName, String bookerEmail) {
+        this(id, start, end,
+                new BookingItemDto(itemId, itemName, itemDescription, itemAvailable, itemOwnerId, itemRequestId),
+                new BookerDto(bookerId, bookerName, bookerEmail), status);
+    }
 }
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public interface BookingOutputView {
+
+    Long getId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    BookingStatus getStatus();
+
+    Long getItemId();
+
+    String getItemName();
+
+    String getItemDescription();
+
+    Boolean getItemAvailable();
+
+    Long getItemOwnerId();
+
+    Long getItemRequestId();
+
+    Long getBookerId();
+
+    String getBookerName();
+
+    String getBookerEmail();
+}
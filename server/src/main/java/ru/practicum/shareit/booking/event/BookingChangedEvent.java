@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Data;
+import ru.practicum.shareit.booking.model.Booking;
+
+@Data
+public class BookingChangedEvent {
+
+    private final Booking booking;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+public class BookingsExpiredEvent {
+
+    private final Map<Long, List<Long>> bookingIdsByItemId;
+
+    public Set<Long> getItemIds() {
+        return bookingIdsByItemId.keySet();
+    }
+}
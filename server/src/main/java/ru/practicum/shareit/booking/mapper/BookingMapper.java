@@ -1,8 +1,12 @@
 package ru.practicum.shareit.booking.mapper;
 
 import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.dto.BookingOutput;
+import ru.practicum.shareit.booking.dto.BookingOutputView;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 
 @RequiredArgsConstructor
@@ -22,6 +26,20 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingDto mapToBookingDto(ArchivedBooking booking) {
+        if (booking == null) {
+            return null;
+        }
+        return BookingDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .itemId(booking.getItemId())
+                .bookerId(booking.getBookerId())
+                .status(booking.getStatus())
+                .build();
+    }
+
     public static Booking mapToBooking(BookingDto bookingDto) {
         return new Booking(bookingDto.getId(),
                 bookingDto.getStart(),
@@ -36,9 +54,19 @@ public class BookingMapper {
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
-                .booker(booking.getBooker())
-                .item(booking.getItem())
+                .booker(new BookerDto(booking.getBooker().getId(), booking.getBooker().getName(),
+                        booking.getBooker().getEmail()))
+                .item(new BookingItemDto(booking.getItem().getId(), booking.getItem().getName(),
+                        booking.getItem().getDescription(), booking.getItem().getAvailable(),
+                        booking.getItem().getOwnerId(), booking.getItem().getRequestId()))
                 .status(booking.getStatus())
                 .build();
     }
+
+    public static BookingOutput mapToBookingOutput(BookingOutputView view) {
+        return new BookingOutput(view.getId(), view.getStartDate(), view.getEndDate(), view.getStatus(),
+                view.getItemId(), view.getItemName(), view.getItemDescription(), view.getItemAvailable(),
+                view.getItemOwnerId(), view.getItemRequestId(), view.getBookerId(), view.getBookerName(),
+                view.getBookerEmail());
+    }
 }
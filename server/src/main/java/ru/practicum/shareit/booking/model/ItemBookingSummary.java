@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private long itemId;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    private Booking lastBooking;
+    @Column(name = "last_booking_end")
+    private LocalDateTime lastBookingEnd;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_archived_booking_id")
+    private ArchivedBooking lastArchivedBooking;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    private Booking nextBooking;
+    @Column(name = "next_booking_end")
+    private LocalDateTime nextBookingEnd;
+    @Column(name = "refresh_at")
+    private LocalDateTime refreshAt;
+
+    public ItemBookingSummary(long itemId, Booking lastBooking, Booking nextBooking, LocalDateTime refreshAt) {
+        this.itemId = itemId;
+        setLastBooking(lastBooking);
+        setNextBooking(nextBooking);
+        this.refreshAt = refreshAt;
+    }
+
+    public void setLastBooking(Booking lastBooking) {
+        this.lastBooking = lastBooking;
+        this.lastBookingEnd = lastBooking != null ? lastBooking.getEnd() : null;
+    }
+
+    public void setNextBooking(Booking nextBooking) {
+        this.nextBooking = nextBooking;
+        this.nextBookingEnd = nextBooking != null ? nextBooking.getEnd() : null;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dao.BookingItemRef;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.event.BookingsExpiredEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class BookingExpirySweeper {
+
+    private final BookingRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter expired;
+
+    public BookingExpirySweeper(BookingRepository repository,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${shareit.booking-expiry.batch-size:500}") int batchSize,
+                                @Value("${shareit.booking-expiry.max-batches:20}") int maxBatches,
+                                MeterRegistry registry) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.expired = Counter.builder("shareit.booking.expired")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.sweep-interval-ms:60000}")
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        Map<Long, List<Long>> bookingIdsByItemId = new HashMap<>();
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<BookingItemRef> updated = repository.expireWaiting(now, batchSize);
+            updated.forEach(booking -> bookingIdsByItemId
+                    .computeIfAbsent(booking.getItemId(), id -> new ArrayList<>())
+                    .add(booking.getId()));
+            total += updated.size();
+            expired.increment(updated.size());
+            if (updated.size() < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Expired {} waiting bookings of {} items that started before {}", total,
+                    bookingIdsByItemId.size(), now);
+            eventPublisher.publishEvent(new BookingsExpiredEvent(bookingIdsByItemId));
+        }
+        return total;
+    }
+}
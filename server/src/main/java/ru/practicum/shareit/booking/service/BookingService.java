@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutput;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.BookingState;
 
 import java.util.List;
@@ -12,9 +15,15 @@ public interface BookingService {
 
     BookingOutput update(long bookingId, boolean approved, long userId);
 
+    List<BookingBatchResultDto> updateAll(long userId, List<BookingDecisionDto> decisions);
+
     BookingOutput getById(long bookingId, long userId);
 
-    List<BookingOutput> getUserBookings(BookingState state, long userId, int from, Integer size);
+    List<BookingOutput> getUserBookings(BookingState state, long userId, int from, Integer size, String cursor);
+
+    List<BookingOutput> getBookingItemsByOwner(BookingState state, long userId, int from, Integer size, String cursor);
+
+    BookingSummaryDto getUserSummary(long userId);
 
-    List<BookingOutput> getBookingItemsByOwner(BookingState state, long userId, int from, Integer size);
+    BookingSummaryDto getOwnerSummary(long userId);
 }
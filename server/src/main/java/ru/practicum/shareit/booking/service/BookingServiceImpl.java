@@ -1,25 +1,46 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.archive.BookingArchiveService;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchStatus;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutput;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.BookingValidateException;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
@@ -27,21 +48,36 @@ import java.util.stream.Collectors;
 @Transactional
 public class BookingServiceImpl implements BookingService {
 
+    private static final Set<BookingStatus> ACTIVE_STATUSES = Set.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final Set<BookingStatus> ALL_STATUSES = EnumSet.allOf(BookingStatus.class);
+    private static final KeysetCursor FIRST_PAGE = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
     private final BookingRepository repository;
     private final ItemService itemService;
     private final UserService userService;
+    private final ItemBookingSummaryService summaryService;
+    private final BookingArchiveService archiveService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public BookingOutput add(BookingDto bookingDto, long userId) {
         Booking booking = BookingMapper.mapToBooking(bookingDto);
         booking.setBooker(UserMapper.mapToUser(userService.getById(userId)));
-        booking.setItem(itemService.getItemById(bookingDto.getItemId()));
+        booking.setItem(itemService.getItemByIdForUpdate(bookingDto.getItemId()));
         booking.setStatus(BookingStatus.WAITING);
-        if (itemService.getItemById(booking.getItem().getId()).getOwnerId() != userId) {
-            if (itemService.getItemById(booking.getItem().getId()).getAvailable())
-                return BookingMapper.mapToBookingOutput(repository.save(booking));
-            else
+        if (booking.getItem().getOwnerId() != userId) {
+            if (booking.getItem().getAvailable()) {
+                if (repository.existsOverlapping(booking.getItem().getId(), booking.getStart(), booking.getEnd(),
+                        ACTIVE_STATUSES)) {
+                    throw new BookingValidateException(String.format("Item with ID=%s is already booked for this period",
+                            booking.getItem().getId()));
+                }
+                Booking savedBooking = repository.save(booking);
+                summaryService.refresh(savedBooking.getItem().getId());
+                eventPublisher.publishEvent(new BookingChangedEvent(savedBooking));
+                return BookingMapper.mapToBookingOutput(savedBooking);
+            } else
                 throw new BookingValidateException(String.format("Item with ID=%s is not available",
                         booking.getItem().getId()));
         } else {
@@ -56,16 +92,26 @@ public class BookingServiceImpl implements BookingService {
         userService.getById(userId);
         Optional<Booking> booking = repository.findById(bookingId);
         if (booking.isPresent()) {
-            if (itemService.getItemById(booking.get().getItem().getId()).getOwnerId() == userId) {
+            long itemId = booking.get().getItem().getId();
+            Item item = approved ? itemService.getItemByIdForUpdate(itemId) : itemService.getItemById(itemId);
+            if (item.getOwnerId() == userId) {
                 if (approved) {
                     if (booking.get().getStatus().equals(BookingStatus.APPROVED)) {
                         throw new IllegalArgumentException("This booking already have status APPROVED");
                     }
+                    if (repository.existsOverlappingExcept(itemId, booking.get().getStart(), booking.get().getEnd(),
+                            ACTIVE_STATUSES, List.of(bookingId))) {
+                        throw new BookingValidateException(String.format(
+                                "Item with ID=%s is already booked for this period", itemId));
+                    }
                     booking.get().setStatus(BookingStatus.APPROVED);
                 } else {
                     booking.get().setStatus(BookingStatus.REJECTED);
                 }
-                return BookingMapper.mapToBookingOutput(repository.save(booking.get()));
+                Booking savedBooking = repository.save(booking.get());
+                summaryService.refresh(savedBooking.getItem().getId());
+                eventPublisher.publishEvent(new BookingChangedEvent(savedBooking));
+                return BookingMapper.mapToBookingOutput(savedBooking);
             } else {
                 throw new UserNotFoundException(String.format("User with ID=%s does not have access", userId));
             }
@@ -74,6 +120,103 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> updateAll(long userId, List<BookingDecisionDto> decisions) {
+        userService.getById(userId);
+        Map<Long, Booking> bookings = repository.findAllWithItemByIdIn(decisions.stream()
+                        .map(BookingDecisionDto::getBookingId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Set<Long> seenIds = new HashSet<>();
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        Map<BookingStatus, List<Long>> idsByStatus = new EnumMap<>(BookingStatus.class);
+        Map<Long, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            Booking booking = bookings.get(decision.getBookingId());
+            String error = null;
+            if (booking == null) {
+                error = String.format("Booking with ID=%s not found", decision.getBookingId());
+            } else if (booking.getItem().getOwnerId() != userId) {
+                error = String.format("User with ID=%s does not have access", userId);
+            } else if (!seenIds.add(decision.getBookingId())) {
+                error = String.format("Booking with ID=%s is listed more than once", decision.getBookingId());
+            } else if (decision.getApproved() == null) {
+                error = "Parameter approved is required";
+            } else if (decision.getApproved() && booking.getStatus() == BookingStatus.APPROVED) {
+                error = "This booking already have status APPROVED";
+            }
+            if (error != null) {
+                results.add(BookingBatchResultDto.builder()
+                        .index(i)
+                        .bookingId(decision.getBookingId())
+                        .status(BookingBatchStatus.FAILED)
+                        .error(error)
+                        .build());
+            } else {
+                BookingStatus status = decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+                idsByStatus.computeIfAbsent(status, s -> new ArrayList<>()).add(booking.getId());
+                indexes.put(booking.getId(), i);
+            }
+        }
+        rejectOverlappingApprovals(idsByStatus.get(BookingStatus.APPROVED), bookings, indexes, results);
+        idsByStatus.values().removeIf(List::isEmpty);
+        idsByStatus.forEach((status, ids) -> repository.updateStatus(ids, status));
+        Set<Long> itemIds = new HashSet<>();
+        idsByStatus.forEach((status, ids) -> ids.forEach(id -> {
+            Booking booking = bookings.get(id);
+            booking.setStatus(status);
+            itemIds.add(booking.getItem().getId());
+            eventPublisher.publishEvent(new BookingChangedEvent(booking));
+            results.add(BookingBatchResultDto.builder()
+                    .index(indexes.get(id))
+                    .bookingId(id)
+                    .status(BookingBatchStatus.UPDATED)
+                    .booking(BookingMapper.mapToBookingOutput(booking))
+                    .build());
+        }));
+        itemIds.forEach(summaryService::refresh);
+        results.sort(Comparator.comparingInt(BookingBatchResultDto::getIndex));
+        return results;
+    }
+
+    private void rejectOverlappingApprovals(List<Long> approvedIds, Map<Long, Booking> bookings,
+                                            Map<Long, Integer> indexes, List<BookingBatchResultDto> results) {
+        if (approvedIds == null) {
+            return;
+        }
+        Map<Long, List<Booking>> approvedByItem = approvedIds.stream()
+                .map(bookings::get)
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), TreeMap::new,
+                        Collectors.toList()));
+        Set<Long> decidedIds = indexes.keySet();
+        Set<Long> overlappingIds = new HashSet<>();
+        approvedByItem.forEach((itemId, approved) -> {
+            itemService.getItemByIdForUpdate(itemId);
+            List<Booking> accepted = new ArrayList<>();
+            for (Booking booking : approved) {
+                boolean overlaps = accepted.stream().anyMatch(other -> other.getStart().isBefore(booking.getEnd())
+                        && other.getEnd().isAfter(booking.getStart()))
+                        || repository.existsOverlappingExcept(itemId, booking.getStart(), booking.getEnd(),
+                        ACTIVE_STATUSES, decidedIds);
+                if (overlaps) {
+                    overlappingIds.add(booking.getId());
+                    results.add(BookingBatchResultDto.builder()
+                            .index(indexes.get(booking.getId()))
+                            .bookingId(booking.getId())
+                            .status(BookingBatchStatus.FAILED)
+                            .error(String.format("Item with ID=%s is already booked for this period", itemId))
+                            .build());
+                } else {
+                    accepted.add(booking);
+                }
+            }
+        });
+        approvedIds.removeAll(overlappingIds);
+    }
+
     @Override
     @Transactional
     public BookingOutput getById(long bookingId, long userId) {
@@ -93,75 +236,133 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional
-    public List<BookingOutput> getUserBookings(BookingState state, long userId, int from, Integer size) {
+    public List<BookingOutput> getUserBookings(BookingState state, long userId, int from, Integer size,
+                                               String cursor) {
         userService.getById(userId);
-        List<Booking> bookings = repository.findAllByBookerIdOrderByStartDesc(userId);
-        List<BookingOutput> result = filteringByState(bookings, state);
-        checkingFromParameter(from, result.size());
-        if (size != null) {
-            return result.subList(from, result.size())
-                    .stream()
-                    .limit(size)
-                    .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingOutput> bookings;
+        if (cursor != null) {
+            bookings = findByBooker(state, userId, now, KeysetCursor.decode(cursor), OffsetPageRequest.of(0, size));
         } else {
-            return result.subList(from, result.size());
+            bookings = findByBooker(state, userId, now, FIRST_PAGE, OffsetPageRequest.of(from, size));
+            if (bookings.isEmpty() && from > 0) {
+                checkingFromParameter(findByBooker(state, userId, now, FIRST_PAGE, OffsetPageRequest.of(from - 1, 1)));
+            }
         }
+        return bookings;
     }
 
     @Override
     @Transactional
-    public List<BookingOutput> getBookingItemsByOwner(BookingState state, long userId, int from, Integer size) {
+    public List<BookingOutput> getBookingItemsByOwner(BookingState state, long userId, int from, Integer size,
+                                                      String cursor) {
         userService.getById(userId);
-        List<Booking> bookings = repository.findAllByItem_OwnerIdOrderByStartDesc(userId);
-        List<BookingOutput> result = filteringByState(bookings, state);
-        checkingFromParameter(from, result.size());
-        if (size != null) {
-            return result.subList(from, result.size())
-                    .stream()
-                    .limit(size)
-                    .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingOutput> bookings;
+        if (cursor != null) {
+            bookings = findByOwner(state, userId, now, KeysetCursor.decode(cursor), OffsetPageRequest.of(0, size));
         } else {
-            return result.subList(from, result.size());
+            bookings = findByOwner(state, userId, now, FIRST_PAGE, OffsetPageRequest.of(from, size));
+            if (bookings.isEmpty() && from > 0) {
+                checkingFromParameter(findByOwner(state, userId, now, FIRST_PAGE, OffsetPageRequest.of(from - 1, 1)));
+            }
         }
+        return bookings;
     }
 
-    private List<BookingOutput> filteringByState(List<Booking> bookings, BookingState state) {
-        if (state.equals(BookingState.CURRENT)) {
-            return bookings.stream()
-                    .filter(booking -> booking.getStart().isBefore(LocalDateTime.now())
-                            && booking.getEnd().isAfter(LocalDateTime.now()))
-                    .map(BookingMapper::mapToBookingOutput)
-                    .collect(Collectors.toList());
-        } else if (state.equals(BookingState.FUTURE)) {
-            return bookings.stream()
-                    .filter(booking -> booking.getStart().isAfter(LocalDateTime.now())
-                            && !booking.getStatus().equals(BookingStatus.REJECTED))
-                    .map(BookingMapper::mapToBookingOutput)
-                    .collect(Collectors.toList());
-        } else if (state.equals(BookingState.PAST)) {
-            return bookings.stream()
-                    .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
-                    .map(BookingMapper::mapToBookingOutput)
-                    .collect(Collectors.toList());
-        } else if (state.equals(BookingState.WAITING)) {
-            return bookings.stream()
-                    .filter(booking -> booking.getStatus().equals(BookingStatus.WAITING))
-                    .map(BookingMapper::mapToBookingOutput)
-                    .collect(Collectors.toList());
-        } else if (state.equals(BookingState.REJECTED)) {
-            return bookings.stream()
-                    .filter(booking -> booking.getStatus().equals(BookingStatus.REJECTED))
-                    .map(BookingMapper::mapToBookingOutput)
-                    .collect(Collectors.toList());
-        } else {
-            return bookings.stream()
-                    .map(BookingMapper::mapToBookingOutput)
-                    .collect(Collectors.toList());
+    @Override
+    @Transactional
+    public BookingSummaryDto getUserSummary(long userId) {
+        userService.getById(userId);
+        return sum(repository.summarizeByBookerId(userId, LocalDateTime.now(), BookingStatus.WAITING,
+                        BookingStatus.REJECTED),
+                repository.summarizeArchivedByBookerId(userId, BookingStatus.WAITING, BookingStatus.REJECTED));
+    }
+
+    @Override
+    @Transactional
+    public BookingSummaryDto getOwnerSummary(long userId) {
+        userService.getById(userId);
+        return sum(repository.summarizeByOwnerId(userId, LocalDateTime.now(), BookingStatus.WAITING,
+                        BookingStatus.REJECTED),
+                repository.summarizeArchivedByOwnerId(userId, BookingStatus.WAITING, BookingStatus.REJECTED));
+    }
+
+    private List<BookingOutput> findByBooker(BookingState state, long userId, LocalDateTime now, KeysetCursor before,
+                                             Pageable pageable) {
+        LocalDateTime start = before.getTimestamp();
+        long id = before.getId();
+        switch (state) {
+            case CURRENT:
+                return repository.findCurrentByBookerId(userId, now, start, id, pageable);
+            case PAST:
+                List<BookingOutput> past = repository.findPastByBookerId(userId, now, start, id, pageable);
+                return archiveService.reachesArchive(past, pageable)
+                        ? archiveService.findByBooker(userId, now, ALL_STATUSES, past, before, pageable)
+                        : past;
+            case FUTURE:
+                return repository.findFutureByBookerId(userId, now, BookingStatus.REJECTED, start, id, pageable);
+            case WAITING:
+                return repository.findAllByBookerIdAndStatus(userId, BookingStatus.WAITING, start, id, pageable);
+            case REJECTED:
+                List<BookingOutput> rejected = repository.findAllByBookerIdAndStatus(userId, BookingStatus.REJECTED,
+                        start, id, pageable);
+                return archiveService.reachesArchive(rejected, pageable)
+                        ? archiveService.findByBooker(userId, FIRST_PAGE.getTimestamp(),
+                        Set.of(BookingStatus.REJECTED), rejected, before, pageable)
+                        : rejected;
+            default:
+                List<BookingOutput> all = repository.findAllByBookerId(userId, start, id, pageable);
+                return archiveService.reachesArchive(all, pageable)
+                        ? archiveService.findByBooker(userId, FIRST_PAGE.getTimestamp(), ALL_STATUSES, all, before,
+                        pageable)
+                        : all;
         }
     }
 
-    private void checkingFromParameter(int from, int listSize) {
-        if (from > listSize) {
+    private List<BookingOutput> findByOwner(BookingState state, long userId, LocalDateTime now, KeysetCursor before,
+                                            Pageable pageable) {
+        LocalDateTime start = before.getTimestamp();
+        long id = before.getId();
+        switch (state) {
+            case CURRENT:
+                return repository.findCurrentByOwnerId(userId, now, start, id, pageable);
+            case PAST:
+                List<BookingOutput> past = repository.findPastByOwnerId(userId, now, start, id, pageable);
+                return archiveService.reachesArchive(past, pageable)
+                        ? archiveService.findByOwner(userId, now, ALL_STATUSES, past, before, pageable)
+                        : past;
+            case FUTURE:
+                return repository.findFutureByOwnerId(userId, now, BookingStatus.REJECTED, start, id, pageable);
+            case WAITING:
+                return repository.findAllByOwnerIdAndStatus(userId, BookingStatus.WAITING, start, id, pageable);
+            case REJECTED:
+                List<BookingOutput> rejected = repository.findAllByOwnerIdAndStatus(userId, BookingStatus.REJECTED,
+                        start, id, pageable);
+                return archiveService.reachesArchive(rejected, pageable)
+                        ? archiveService.findByOwner(userId, FIRST_PAGE.getTimestamp(),
+                        Set.of(BookingStatus.REJECTED), rejected, before, pageable)
+                        : rejected;
+            default:
+                List<BookingOutput> all = repository.findAllByOwnerId(userId, start, id, pageable);
+                return archiveService.reachesArchive(all, pageable)
+                        ? archiveService.findByOwner(userId, FIRST_PAGE.getTimestamp(), ALL_STATUSES, all, before,
+                        pageable)
+                        : all;
+        }
+    }
+
+    private static BookingSummaryDto sum(BookingSummaryDto hot, BookingSummaryDto archived) {
+        return new BookingSummaryDto(hot.getAll() + archived.getAll(),
+                hot.getCurrent() + archived.getCurrent(),
+                hot.getPast() + archived.getPast(),
+                hot.getFuture() + archived.getFuture(),
+                hot.getWaiting() + archived.getWaiting(),
+                hot.getRejected() + archived.getRejected());
+    }
+
+    private void checkingFromParameter(List<BookingOutput> lastSkipped) {
+        if (lastSkipped.isEmpty()) {
             throw new IllegalArgumentException("Parameter from must be lower size list");
         }
     }
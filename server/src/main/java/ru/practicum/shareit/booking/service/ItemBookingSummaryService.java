@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ItemBookingSummaryService {
+
+    ItemBookingSummary refresh(long itemId);
+
+    Map<Long, ItemBookingSummary> getSummaries(Collection<Long> itemIds);
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.ItemBookingEnd;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.event.BookingsExpiredEvent;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+
+    private final ItemBookingSummaryRepository repository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+
+    @Override
+    @Transactional
+    public ItemBookingSummary refresh(long itemId) {
+        itemRepository.findByIdForUpdate(itemId);
+        ItemBookingSummary summary = compute(List.of(itemId), LocalDateTime.now()).get(itemId);
+        return repository.save(summary);
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, ItemBookingSummary> getSummaries(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> result = new HashMap<>();
+        List<Long> expired = new ArrayList<>();
+        for (ItemBookingSummary summary : repository.findAllByItemIdIn(itemIds)) {
+            if (summary.getRefreshAt() != null && !summary.getRefreshAt().isAfter(now)) {
+                expired.add(summary.getItemId());
+            } else {
+                result.put(summary.getItemId(), summary);
+            }
+        }
+        if (!expired.isEmpty()) {
+            result.putAll(compute(expired, now));
+        }
+        return result;
+    }
+
+    @EventListener
+    @Transactional
+    public void onUserDeleted(UserDeletedEvent event) {
+        if (!event.getBookedItemIds().isEmpty()) {
+            repository.expireByItemIds(event.getBookedItemIds(), LocalDateTime.now());
+        }
+    }
+
+    @EventListener
+    @Transactional
+    public void onBookingsExpired(BookingsExpiredEvent event) {
+        repository.expireByItemIds(event.getItemIds(), LocalDateTime.now());
+    }
+
+    private Map<Long, ItemBookingSummary> compute(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> result = new HashMap<>();
+        itemIds.forEach(itemId -> result.put(itemId, new ItemBookingSummary(itemId, null, null, null)));
+        for (Booking booking : bookingRepository.findLastBookingsByItemIds(itemIds, now, BookingStatus.REJECTED)) {
+            ItemBookingSummary summary = result.get(booking.getItem().getId());
+            if (summary.getLastBooking() == null || summary.getLastBooking().getId() < booking.getId()) {
+                summary.setLastBooking(booking);
+            }
+        }
+        List<Long> withoutLast = result.values().stream()
+                .filter(summary -> summary.getLastBooking() == null)
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toList());
+        if (!withoutLast.isEmpty()) {
+            for (ArchivedBooking booking : bookingRepository.findLastArchivedByItemIds(withoutLast, now,
+                    BookingStatus.REJECTED)) {
+                ItemBookingSummary summary = result.get(booking.getItemId());
+                if (summary.getLastArchivedBooking() == null
+                        || summary.getLastArchivedBooking().getId() < booking.getId()) {
+                    summary.setLastArchivedBooking(booking);
+                }
+            }
+        }
+        for (Booking booking : bookingRepository.findNextBookingsByItemIds(itemIds, BookingStatus.APPROVED, now)) {
+            ItemBookingSummary summary = result.get(booking.getItem().getId());
+            if (summary.getNextBooking() == null || summary.getNextBooking().getId() > booking.getId()) {
+                summary.setNextBooking(booking);
+            }
+        }
+        for (ItemBookingEnd end : bookingRepository.findNearestEndsAfter(itemIds, now, BookingStatus.REJECTED)) {
+            result.get(end.getItemId()).setRefreshAt(end.getNearestEnd());
+        }
+        for (ItemBookingSummary summary : result.values()) {
+            Booking next = summary.getNextBooking();
+            if (next != null && (summary.getRefreshAt() == null || next.getStart().isBefore(summary.getRefreshAt()))) {
+                summary.setRefreshAt(next.getStart());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingSummarySweeper {
+
+    private final ItemBookingSummaryRepository repository;
+    private final ItemBookingSummaryService summaryService;
+
+    @Value("${shareit.booking-summary.sweep-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.sweep-interval-ms:60000}")
+    public void sweep() {
+        List<Long> itemIds = repository.findExpiredItemIds(LocalDateTime.now(), OffsetPageRequest.of(0, batchSize));
+        itemIds.forEach(summaryService::refresh);
+        if (!itemIds.isEmpty()) {
+            log.info("Refreshed booking summaries for {} items", itemIds.size());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package ru.practicum.shareit.booking.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingOutput;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.event.BookingsExpiredEvent;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class OwnerBookingStream {
+
+    private final BookingRepository repository;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final ExecutorService executor;
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Counter delivered;
+    private final Counter dropped;
+
+    public OwnerBookingStream(BookingRepository repository,
+                              @Value("${shareit.booking-stream.buffer-size:100}") int bufferSize,
+                              @Value("${shareit.booking-stream.timeout-ms:1800000}") long timeoutMs,
+                              @Value("${shareit.booking-stream.delivery-threads:4}") int deliveryThreads,
+                              MeterRegistry registry) {
+        this.repository = repository;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.executor = Executors.newFixedThreadPool(deliveryThreads);
+        this.delivered = Counter.builder("shareit.booking.stream.events")
+                .tag("result", "delivered")
+                .register(registry);
+        this.dropped = Counter.builder("shareit.booking.stream.events")
+                .tag("result", "dropped")
+                .register(registry);
+        Gauge.builder("shareit.booking.stream.subscribers", this, OwnerBookingStream::subscribers)
+                .register(registry);
+    }
+
+    public SseEmitter subscribe(long ownerId) {
+        return subscribe(ownerId, new SseEmitter(timeoutMs));
+    }
+
+    public SseEmitter subscribe(long ownerId, SseEmitter emitter) {
+        Subscription subscription = new Subscription(ownerId, emitter);
+        subscriptions.computeIfAbsent(ownerId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscription));
+        return emitter;
+    }
+
+    public int subscribers() {
+        return subscriptions.values().stream()
+                .mapToInt(Set::size)
+                .sum();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Set<Subscription> ownerSubscriptions = subscriptions.get(event.getBooking().getItem().getOwnerId());
+        if (ownerSubscriptions == null || ownerSubscriptions.isEmpty()) {
+            return;
+        }
+        BookingOutput booking = BookingMapper.mapToBookingOutput(event.getBooking());
+        ownerSubscriptions.forEach(subscription -> subscription.offer(booking));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingsExpired(BookingsExpiredEvent event) {
+        Set<Long> ownerIds = subscriptions.keySet();
+        if (ownerIds.isEmpty()) {
+            return;
+        }
+        List<Long> bookingIds = event.getBookingIdsByItemId().values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        repository.findAllByIdInAndOwnerIdIn(bookingIds, Set.copyOf(ownerIds)).forEach(booking -> {
+            Set<Subscription> ownerSubscriptions = subscriptions.get(booking.getItem().getOwnerId());
+            if (ownerSubscriptions != null) {
+                ownerSubscriptions.forEach(subscription -> subscription.offer(booking));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        subscriptions.values().forEach(ownerSubscriptions -> ownerSubscriptions
+                .forEach(subscription -> subscription.emitter.complete()));
+        subscriptions.clear();
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.ownerId, (id, ownerSubscriptions) -> {
+            ownerSubscriptions.remove(subscription);
+            return ownerSubscriptions.isEmpty() ? null : ownerSubscriptions;
+        });
+    }
+
+    private class Subscription {
+
+        private final long ownerId;
+        private final SseEmitter emitter;
+        private final Deque<BookingOutput> buffer = new ArrayDeque<>();
+        private int missed;
+        private boolean draining;
+
+        Subscription(long ownerId, SseEmitter emitter) {
+            this.ownerId = ownerId;
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(BookingOutput booking) {
+            if (buffer.size() >= bufferSize) {
+                buffer.pollFirst();
+                missed++;
+                dropped.increment();
+            }
+            buffer.addLast(booking);
+            if (!draining) {
+                draining = true;
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                BookingOutput booking;
+                int skipped;
+                synchronized (this) {
+                    booking = buffer.pollFirst();
+                    skipped = missed;
+                    missed = 0;
+                    if (booking == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (skipped > 0) {
+                        emitter.send(SseEmitter.event()
+                                .name("dropped")
+                                .data(skipped));
+                    }
+                    emitter.send(SseEmitter.event()
+                            .name("booking")
+                            .id(String.valueOf(booking.getId()))
+                            .data(booking, MediaType.APPLICATION_JSON));
+                    delivered.increment();
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Booking stream of owner {} closed: {}", ownerId, e.getMessage());
+                    remove(this);
+                    synchronized (this) {
+                        buffer.clear();
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
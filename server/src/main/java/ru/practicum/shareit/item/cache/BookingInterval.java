@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class BookingInterval {
+
+    private final long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
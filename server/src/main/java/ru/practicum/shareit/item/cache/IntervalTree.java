@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item.cache;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+class IntervalTree {
+
+    private final long[] ids;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    private IntervalTree(long[] ids, long[] starts, long[] ends) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new long[ids.length];
+        buildMaxEnds(0, ids.length);
+    }
+
+    static IntervalTree of(Collection<BookingInterval> intervals) {
+        BookingInterval[] sorted = intervals.toArray(new BookingInterval[0]);
+        Arrays.sort(sorted, (left, right) -> left.getStart().equals(right.getStart())
+                ? Long.compare(left.getId(), right.getId())
+                : left.getStart().compareTo(right.getStart()));
+        long[] ids = new long[sorted.length];
+        long[] starts = new long[sorted.length];
+        long[] ends = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            ids[i] = sorted[i].getId();
+            starts[i] = toMicros(sorted[i].getStart());
+            ends[i] = toMicros(sorted[i].getEnd());
+        }
+        return new IntervalTree(ids, starts, ends);
+    }
+
+    IntervalTree with(BookingInterval interval) {
+        IntervalTree tree = without(interval.getId());
+        long id = interval.getId();
+        long start = toMicros(interval.getStart());
+        int position = 0;
+        while (position < tree.ids.length && (tree.starts[position] < start
+                || tree.starts[position] == start && tree.ids[position] < id)) {
+            position++;
+        }
+        return new IntervalTree(
+                insert(tree.ids, position, id),
+                insert(tree.starts, position, start),
+                insert(tree.ends, position, toMicros(interval.getEnd())));
+    }
+
+    IntervalTree without(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return new IntervalTree(remove(ids, i), remove(starts, i), remove(ends, i));
+            }
+        }
+        return this;
+    }
+
+    List<BookingInterval> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<BookingInterval> result = new ArrayList<>();
+        collect(0, ids.length, toMicros(from), toMicros(to), result);
+        return result;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    private long buildMaxEnds(int low, int high) {
+        if (low >= high) {
+            return Long.MIN_VALUE;
+        }
+        int middle = (low + high) >>> 1;
+        long max = Math.max(ends[middle], Math.max(buildMaxEnds(low, middle), buildMaxEnds(middle + 1, high)));
+        maxEnds[middle] = max;
+        return max;
+    }
+
+    private void collect(int low, int high, long from, long to, List<BookingInterval> result) {
+        if (low >= high) {
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        if (maxEnds[middle] <= from) {
+            return;
+        }
+        collect(low, middle, from, to, result);
+        if (starts[middle] >= to) {
+            return;
+        }
+        if (ends[middle] > from) {
+            result.add(new BookingInterval(ids[middle], fromMicros(starts[middle]), fromMicros(ends[middle])));
+        }
+        collect(middle + 1, high, from, to, result);
+    }
+
+    private static long[] insert(long[] values, int position, long value) {
+        long[] updated = new long[values.length + 1];
+        System.arraycopy(values, 0, updated, 0, position);
+        updated[position] = value;
+        System.arraycopy(values, position, updated, position + 1, values.length - position);
+        return updated;
+    }
+
+    private static long[] remove(long[] values, int position) {
+        long[] updated = new long[values.length - 1];
+        System.arraycopy(values, 0, updated, 0, position);
+        System.arraycopy(values, position + 1, updated, position, values.length - position - 1);
+        return updated;
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
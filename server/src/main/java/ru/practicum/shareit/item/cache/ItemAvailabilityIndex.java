@@ -0,0 +1,176 @@
+package ru.practicum.shareit.item.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.event.BookingsExpiredEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+@Component
+public class ItemAvailabilityIndex {
+
+    public static final Set<BookingStatus> BUSY_STATUSES = Set.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final int maxIntervals;
+    private final long idleTimeoutMs;
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final LoadVersions versions = new LoadVersions();
+    private long intervals;
+
+    public ItemAvailabilityIndex(@Value("${shareit.item-availability.max-intervals:1000000}") int maxIntervals,
+                                 @Value("${shareit.item-availability.idle-timeout-ms:600000}") long idleTimeoutMs,
+                                 MeterRegistry registry) {
+        this.maxIntervals = maxIntervals;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.hits = Counter.builder("shareit.item.availability.requests")
+                .tag("result", "hit")
+                .register(registry);
+        this.misses = Counter.builder("shareit.item.availability.requests")
+                .tag("result", "miss")
+                .register(registry);
+        this.evictions = Counter.builder("shareit.item.availability.evictions")
+                .register(registry);
+        Gauge.builder("shareit.item.availability.intervals", this, ItemAvailabilityIndex::intervals)
+                .register(registry);
+    }
+
+    public List<BookingInterval> getBusy(long itemId, LocalDateTime from, LocalDateTime to,
+                                         LongFunction<List<BookingInterval>> loader) {
+        IntervalTree cached = null;
+        long stamp = 0;
+        synchronized (this) {
+            Entry entry = entries.get(itemId);
+            if (entry != null) {
+                entry.lastAccess = System.currentTimeMillis();
+                cached = entry.tree;
+            } else {
+                stamp = versions.begin(itemId);
+            }
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached.overlapping(from, to);
+        }
+        misses.increment();
+        IntervalTree tree = null;
+        try {
+            tree = IntervalTree.of(loader.apply(itemId));
+        } finally {
+            cache(itemId, stamp, tree);
+        }
+        return tree.overlapping(from, to);
+    }
+
+    public synchronized void invalidateAll() {
+        versions.invalidateAll();
+        entries.clear();
+        intervals = 0;
+    }
+
+    public synchronized long intervals() {
+        return intervals;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item-availability.sweep-interval-ms:60000}")
+    public synchronized void evictIdle() {
+        long idleSince = System.currentTimeMillis() - idleTimeoutMs;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.lastAccess <= idleSince) {
+                intervals -= entry.tree.size();
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingChanged(BookingChangedEvent event) {
+        Booking booking = event.getBooking();
+        long itemId = booking.getItem().getId();
+        versions.invalidate(itemId);
+        Entry entry = entries.get(itemId);
+        if (entry == null) {
+            return;
+        }
+        IntervalTree updated = BUSY_STATUSES.contains(booking.getStatus())
+                ? entry.tree.with(new BookingInterval(booking.getId(), booking.getStart(), booking.getEnd()))
+                : entry.tree.without(booking.getId());
+        intervals += updated.size() - entry.tree.size();
+        entry.tree = updated;
+        evictOverflow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingsExpired(BookingsExpiredEvent event) {
+        event.getBookingIdsByItemId().forEach((itemId, bookingIds) -> {
+            versions.invalidate(itemId);
+            Entry entry = entries.get(itemId);
+            if (entry == null) {
+                return;
+            }
+            IntervalTree updated = entry.tree;
+            for (long bookingId : bookingIds) {
+                updated = updated.without(bookingId);
+            }
+            intervals += updated.size() - entry.tree.size();
+            entry.tree = updated;
+        });
+    }
+
+    private synchronized void cache(long itemId, long stamp, IntervalTree tree) {
+        if (versions.end(itemId, stamp) && tree != null && tree.size() <= maxIntervals
+                && !entries.containsKey(itemId)) {
+            entries.put(itemId, new Entry(tree));
+            intervals += tree.size();
+            evictOverflow();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (intervals > maxIntervals && iterator.hasNext()) {
+            intervals -= iterator.next().tree.size();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static class Entry {
+
+        private IntervalTree tree;
+        private long lastAccess = System.currentTimeMillis();
+
+        Entry(IntervalTree tree) {
+            this.tree = tree;
+        }
+    }
+}
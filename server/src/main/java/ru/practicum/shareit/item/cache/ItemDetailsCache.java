@@ -0,0 +1,170 @@
+package ru.practicum.shareit.item.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.event.BookingsExpiredEvent;
+import ru.practicum.shareit.item.dto.ItemsByOwnerDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+@Component
+public class ItemDetailsCache {
+
+    private final int maxSize;
+    private final Map<Long, CachedItem> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final LoadVersions versions = new LoadVersions();
+
+    public ItemDetailsCache(@Value("${shareit.item-cache.max-size:10000}") int maxSize, MeterRegistry registry) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedItem> eldest) {
+                if (size() > ItemDetailsCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = Counter.builder("shareit.item.cache.requests")
+                .tag("result", "hit")
+                .register(registry);
+        this.misses = Counter.builder("shareit.item.cache.requests")
+                .tag("result", "miss")
+                .register(registry);
+        this.evictions = Counter.builder("shareit.item.cache.evictions")
+                .register(registry);
+        Gauge.builder("shareit.item.cache.size", this, ItemDetailsCache::size)
+                .register(registry);
+    }
+
+    public ItemsByOwnerDto getView(long itemId, LongFunction<ItemsByOwnerDto> loader) {
+        CachedItem cached;
+        long stamp = 0;
+        synchronized (this) {
+            cached = entries.get(itemId);
+            if (cached == null) {
+                stamp = versions.begin(itemId);
+            }
+        }
+        if (cached != null) {
+            hits.increment();
+            return copy(cached.view);
+        }
+        misses.increment();
+        ItemsByOwnerDto view = null;
+        try {
+            view = loader.apply(itemId);
+        } finally {
+            cacheView(itemId, stamp, view);
+        }
+        return view;
+    }
+
+    public ItemOwnerBookings getOwnerBookings(long itemId, LongFunction<ItemOwnerBookings> loader) {
+        ItemOwnerBookings ownerBookings;
+        long stamp = 0;
+        synchronized (this) {
+            CachedItem cached = entries.get(itemId);
+            ownerBookings = cached != null ? cached.ownerBookings : null;
+            if (ownerBookings == null || !LocalDateTime.now().isBefore(ownerBookings.getValidUntil())) {
+                ownerBookings = null;
+                stamp = versions.begin(itemId);
+            }
+        }
+        if (ownerBookings != null) {
+            hits.increment();
+            return ownerBookings;
+        }
+        misses.increment();
+        try {
+            ownerBookings = loader.apply(itemId);
+        } finally {
+            cacheOwnerBookings(itemId, stamp, ownerBookings);
+        }
+        return ownerBookings;
+    }
+
+    public synchronized void invalidate(long itemId) {
+        versions.invalidate(itemId);
+        entries.remove(itemId);
+    }
+
+    public synchronized void invalidateAll() {
+        versions.invalidateAll();
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        invalidate(event.getItem().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentAdded(CommentAddedEvent event) {
+        invalidate(event.getComment().getItemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidate(event.getBooking().getItem().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingsExpired(BookingsExpiredEvent event) {
+        event.getItemIds().forEach(this::invalidate);
+    }
+
+    private synchronized void cacheView(long itemId, long stamp, ItemsByOwnerDto view) {
+        if (versions.end(itemId, stamp) && view != null) {
+            entries.putIfAbsent(itemId, new CachedItem(copy(view)));
+        }
+    }
+
+    private synchronized void cacheOwnerBookings(long itemId, long stamp, ItemOwnerBookings ownerBookings) {
+        CachedItem cached = entries.get(itemId);
+        if (versions.end(itemId, stamp) && ownerBookings != null && cached != null) {
+            cached.ownerBookings = ownerBookings;
+        }
+    }
+
+    private static ItemsByOwnerDto copy(ItemsByOwnerDto view) {
+        return view.toBuilder()
+                .comments(view.getComments() != null ? List.copyOf(view.getComments()) : null)
+                .build();
+    }
+
+    private static class CachedItem {
+
+        private final ItemsByOwnerDto view;
+        private ItemOwnerBookings ownerBookings;
+
+        CachedItem(ItemsByOwnerDto view) {
+            this.view = view;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.Data;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ItemOwnerBookings {
+
+    private final BookingDto lastBooking;
+    private final BookingDto nextBooking;
+    private final LocalDateTime validUntil;
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class LoadVersions {
+
+    private final Map<Long, Load> loads = new HashMap<>();
+
+    long begin(long itemId) {
+        Load load = loads.computeIfAbsent(itemId, id -> new Load());
+        load.loaders++;
+        return load.version;
+    }
+
+    boolean end(long itemId, long version) {
+        Load load = loads.get(itemId);
+        boolean current = load.version == version;
+        if (--load.loaders == 0) {
+            loads.remove(itemId);
+        }
+        return current;
+    }
+
+    void invalidate(long itemId) {
+        Load load = loads.get(itemId);
+        if (load != null) {
+            load.version++;
+        }
+    }
+
+    void invalidateAll() {
+        loads.values().forEach(load -> load.version++);
+    }
+
+    private static class Load {
+
+        private long version;
+        private int loaders;
+    }
+}
@@ -1,12 +1,25 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemsByOwnerDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -15,6 +28,8 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto add(
@@ -24,6 +39,22 @@ public class ItemController {
         return itemService.add(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public List<ItemBatchResultDto> addAll(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestBody List<ItemDto> itemDtos
+    ) {
+        return itemService.addAll(userId, itemDtos);
+    }
+
+    @PatchMapping("/batch")
+    public List<ItemBatchResultDto> updateAll(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestBody List<ItemDto> itemDtos
+    ) {
+        return itemService.updateAll(userId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(
             @RequestHeader("X-Sharer-User-Id") long userId,
@@ -43,17 +74,39 @@ public class ItemController {
     public List<ItemsByOwnerDto> getItemsByUserId(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "from", defaultValue = "0", required = false) int from,
-            @RequestParam(name = "size", required = false) Integer size
+            @RequestParam(name = "size", required = false) Integer size,
+            @RequestParam(name = "after", required = false) Long after
     ) {
-        return itemService.getItemsByUserId(userId, from, size);
+        return itemService.getItemsByUserId(userId, from, size, after);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader("X-Sharer-User-Id") long userId) {
+        userService.getById(userId);
+        StreamingResponseBody body = out -> itemService.exportItemsByUserId(userId, item -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(item));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/search")
     public List<ItemDto> getSearch(@RequestParam(name = "text") String text,
                                    @RequestParam(name = "from", defaultValue = "0", required = false) int from,
-                                   @RequestParam(name = "size", required = false) Integer size
+                                   @RequestParam(name = "size", required = false) Integer size,
+                                   @RequestParam(name = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                   @RequestParam(name = "end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
     ) {
-        return itemService.getSearch(text, from, size);
+        if (start == null && end == null) {
+            return itemService.getSearch(text, from, size);
+        }
+        return itemService.getSearchAvailable(text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -62,4 +115,25 @@ public class ItemController {
                                  @RequestBody CommentDto commentDto) {
         return itemService.addComment(commentDto, userId, itemId);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public CommentPageDto getComments(@PathVariable long itemId,
+                                      @RequestParam(name = "cursor", required = false) String cursor,
+                                      @RequestParam(name = "size", defaultValue = "20", required = false) int size) {
+        return itemService.getComments(itemId, cursor, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable long itemId,
+                                               @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/{itemId}/matching-requests")
+    public List<ItemRequestDto> getMatchingRequests(@PathVariable long itemId,
+                                                    @RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestParam(name = "size", defaultValue = "10", required = false) int size) {
+        return itemService.getMatchingRequests(itemId, userId, size);
+    }
 }
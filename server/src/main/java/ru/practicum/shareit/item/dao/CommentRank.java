@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dao;
+
+import java.time.LocalDateTime;
+
+public interface CommentRank {
+
+    Long getId();
+
+    String getText();
+
+    String getAuthorName();
+
+    Long getItemId();
+
+    LocalDateTime getCreated();
+
+    Long getTotal();
+}
@@ -1,11 +1,42 @@
 package ru.practicum.shareit.item.dao;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
 
-import java.util.Set;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    Set<Comment> findAllByItemId(long itemId);
+    @Query(value = "select ranked.id as id, ranked.text as text, ranked.author_name as authorName, " +
+            "ranked.item_id as itemId, ranked.created as created, ranked.total as total from (" +
+            "select c.id, c.text, u.name as author_name, c.item_id, c.created, " +
+            "count(*) over (partition by c.item_id) as total, " +
+            "row_number() over (partition by c.item_id order by c.created desc, c.id desc) as rn " +
+            "from comments c join users u on u.id = c.author_id where c.item_id in :itemIds) ranked " +
+            "where ranked.rn <= :limit " +
+            "order by ranked.item_id, ranked.created desc, ranked.id desc",
+            nativeQuery = true)
+    List<CommentRank> findLatestRanksByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
+
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.itemId, c.created) " +
+            "from Comment c join c.author a " +
+            "where c.itemId = :itemId " +
+            "order by c.created desc, c.id desc")
+    List<CommentDto> findPageByItemId(@Param("itemId") long itemId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.itemId, c.created) " +
+            "from Comment c join c.author a " +
+            "where c.itemId = :itemId " +
+            "and (c.created < :created or (c.created = :created and c.id < :id)) " +
+            "order by c.created desc, c.id desc")
+    List<CommentDto> findPageByItemIdBefore(@Param("itemId") long itemId,
+                                            @Param("created") LocalDateTime created,
+                                            @Param("id") long id,
+                                            Pageable pageable);
 }
@@ -1,15 +1,81 @@
 package ru.practicum.shareit.item.dao;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> findAllByNameOrDescriptionContainingIgnoreCase(String name, String description);
+    @Query("select i from Item i " +
+            "where i.available = true " +
+            "and (lower(i.name) like :pattern escape '\\' or lower(i.description) like :pattern escape '\\') " +
+            "order by case when lower(i.name) like :pattern escape '\\' then 0 else 1 end, i.id")
+    List<Item> search(@Param("pattern") String pattern, Pageable pageable);
 
-    List<Item> findAllByOwnerId(long userId);
+    @Query("select count(i) from Item i " +
+            "where i.available = true " +
+            "and (lower(i.name) like :pattern escape '\\' or lower(i.description) like :pattern escape '\\')")
+    long countSearch(@Param("pattern") String pattern);
+
+    @Query("select i from Item i " +
+            "where i.available = true " +
+            "and (lower(i.name) like :pattern escape '\\' or lower(i.description) like :pattern escape '\\') " +
+            "and not exists (select b.id from Booking b where b.item = i and b.status in :statuses " +
+            "and b.start < :end and b.end > :start) " +
+            "order by case when lower(i.name) like :pattern escape '\\' then 0 else 1 end, i.id")
+    List<Item> searchAvailable(@Param("pattern") String pattern,
+                               @Param("start") LocalDateTime start,
+                               @Param("end") LocalDateTime end,
+                               @Param("statuses") Collection<BookingStatus> statuses,
+                               Pageable pageable);
+
+    @Query("select count(i) from Item i " +
+            "where i.available = true " +
+            "and (lower(i.name) like :pattern escape '\\' or lower(i.description) like :pattern escape '\\') " +
+            "and not exists (select b.id from Booking b where b.item = i and b.status in :statuses " +
+            "and b.start < :end and b.end > :start)")
+    long countSearchAvailable(@Param("pattern") String pattern,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end,
+                              @Param("statuses") Collection<BookingStatus> statuses);
+
+    List<Item> findAllByOwnerIdOrderByIdAsc(long userId, Pageable pageable);
+
+    List<Item> findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(long userId, long id, Pageable pageable);
+
+    long countByOwnerId(long userId);
+
+    List<Item> findAllByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
 
     List<Item> findAllByRequestId(long requestId);
+
+    List<Item> findAllByRequestIdAndIdGreaterThanOrderByIdAsc(long requestId, long id);
+
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("select i.id from Item i " +
+            "where i.ownerId = :userId " +
+            "or i.requestId in (select r.id from ItemRequest r where r.requester.id = :userId)")
+    List<Long> findIdsDeletedWithUser(@Param("userId") long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") long id);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select i from Item i where i.ownerId = :ownerId order by i.id")
+    Stream<Item> streamAllByOwnerId(@Param("ownerId") long ownerId);
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class AvailabilityIntervalDto {
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
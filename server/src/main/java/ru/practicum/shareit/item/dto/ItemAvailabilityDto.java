@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class ItemAvailabilityDto {
+
+    private long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<AvailabilityIntervalDto> busy;
+    private List<AvailabilityIntervalDto> free;
+}
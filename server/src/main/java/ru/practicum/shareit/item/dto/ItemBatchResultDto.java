@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ItemBatchResultDto {
+
+    private int index;
+    private ItemBatchStatus status;
+    private ItemDto item;
+    private String error;
+}
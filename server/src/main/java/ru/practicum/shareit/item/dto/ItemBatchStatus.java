@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.dto;
+
+public enum ItemBatchStatus {
+    CREATED,
+    UPDATED,
+    FAILED
+}
@@ -4,10 +4,10 @@ import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
-import java.util.Set;
+import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class ItemsByOwnerDto {
 
     private long id;
@@ -18,5 +18,6 @@ public class ItemsByOwnerDto {
     private Long requestId;
     private BookingDto nextBooking;
     private BookingDto lastBooking;
-    private Set<CommentDto> comments;
+    private List<CommentDto> comments;
+    private long commentsCount;
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Data;
+import ru.practicum.shareit.item.model.Comment;
+
+@Data
+public class CommentAddedEvent {
+
+    private final Comment comment;
+}
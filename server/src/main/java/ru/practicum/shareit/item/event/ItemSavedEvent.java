@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Data;
+import ru.practicum.shareit.item.model.Item;
+
+@Data
+public class ItemSavedEvent {
+
+    private final Item item;
+}
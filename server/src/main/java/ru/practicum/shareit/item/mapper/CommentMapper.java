@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.mapper;
 
+import ru.practicum.shareit.item.dao.CommentRank;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.user.model.User;
@@ -27,4 +28,14 @@ public class CommentMapper {
                 .created(comment.getCreated())
                 .build();
     }
+
+    public static CommentDto mapToCommentDto(CommentRank rank) {
+        return CommentDto.builder()
+                .id(rank.getId())
+                .text(rank.getText())
+                .authorName(rank.getAuthorName())
+                .itemId(rank.getItemId())
+                .created(rank.getCreated())
+                .build();
+    }
 }
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.cache.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository repository;
+
+    @Override
+    public List<ItemDto> search(String text, int from, Integer size) {
+        String pattern = "%" + escapeLikePattern(text.toLowerCase()) + "%";
+        List<Item> items = repository.search(pattern, OffsetPageRequest.of(from, size));
+        if (items.isEmpty() && from > 0) {
+            checkingFromParameter(from, repository.countSearch(pattern));
+        }
+        return items.stream()
+                .map(ItemMapper::mapToItemDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemDto> searchAvailable(String text, LocalDateTime start, LocalDateTime end, int from, Integer size) {
+        String pattern = "%" + escapeLikePattern(text.toLowerCase()) + "%";
+        List<Item> items = repository.searchAvailable(pattern, start, end, ItemAvailabilityIndex.BUSY_STATUSES,
+                OffsetPageRequest.of(from, size));
+        if (items.isEmpty() && from > 0) {
+            checkingFromParameter(from, repository.countSearchAvailable(pattern, start, end,
+                    ItemAvailabilityIndex.BUSY_STATUSES));
+        }
+        return items.stream()
+                .map(ItemMapper::mapToItemDto)
+                .collect(Collectors.toList());
+    }
+
+    private String escapeLikePattern(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private void checkingFromParameter(long from, long listSize) {
+        if (from > listSize) {
+            throw new IllegalArgumentException("Parameter from must be lower size list");
+        }
+    }
+}
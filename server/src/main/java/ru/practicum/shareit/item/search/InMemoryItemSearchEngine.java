@@ -0,0 +1,344 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final long[] EMPTY = new long[0];
+
+    private final ItemRepository repository;
+    private final BookingRepository bookingRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    private Index rebuilding;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Index rebuilt = new Index();
+        lock.writeLock().lock();
+        try {
+            rebuilding = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = repository.findAllByIdGreaterThanOrderByIdAsc(lastId, OffsetPageRequest.of(0, BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                batch.forEach(rebuilt::putIfAbsent);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        lock.writeLock().lock();
+        try {
+            rebuilt.trimToSize();
+            rebuilt.deletedItems.clear();
+            index = rebuilt;
+            rebuilding = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Item search index built with {} items", rebuilt.documents.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        lock.writeLock().lock();
+        try {
+            index.put(event.getItem());
+            if (rebuilding != null) {
+                rebuilding.put(event.getItem());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.getItemIds().forEach(index::remove);
+            if (rebuilding != null) {
+                event.getItemIds().forEach(rebuilding::remove);
+                rebuilding.deletedItems.addAll(event.getItemIds());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, Integer size) {
+        List<Long> candidates = match(text);
+        checkingFromParameter(from, candidates.size());
+        return page(candidates, from, size);
+    }
+
+    @Override
+    public List<ItemDto> searchAvailable(String text, LocalDateTime start, LocalDateTime end, int from, Integer size) {
+        List<Long> candidates = match(text);
+        Set<Long> booked = new HashSet<>();
+        for (int i = 0; i < candidates.size(); i += BATCH_SIZE) {
+            booked.addAll(bookingRepository.findBookedItemIds(
+                    candidates.subList(i, Math.min(i + BATCH_SIZE, candidates.size())),
+                    start, end, ItemAvailabilityIndex.BUSY_STATUSES));
+        }
+        List<Long> available = candidates.stream()
+                .filter(id -> !booked.contains(id))
+                .collect(Collectors.toList());
+        checkingFromParameter(from, available.size());
+        return page(available, from, size);
+    }
+
+    private List<Long> match(String text) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            long[] matches = index.match(index.textTokens, tokens);
+            long[] nameMatches = index.match(index.nameTokens, tokens);
+            List<Long> result = new ArrayList<>();
+            for (long id : nameMatches) {
+                addIfAvailable(id, result);
+            }
+            for (long id : matches) {
+                if (Arrays.binarySearch(nameMatches, id) < 0) {
+                    addIfAvailable(id, result);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addIfAvailable(long id, List<Long> result) {
+        if (index.documents.get(id).available) {
+            result.add(id);
+        }
+    }
+
+    private List<ItemDto> page(List<Long> ids, int from, Integer size) {
+        List<Long> pageIds = ids.stream()
+                .skip(from)
+                .limit(size != null ? size : Long.MAX_VALUE)
+                .collect(Collectors.toList());
+        if (pageIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = repository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return pageIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .map(ItemMapper::mapToItemDto)
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static long[] union(Collection<PostingList> postings) {
+        if (postings.size() == 1) {
+            return postings.iterator().next().toArray();
+        }
+        int total = 0;
+        for (PostingList posting : postings) {
+            total += posting.size();
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (PostingList posting : postings) {
+            long[] ids = posting.toArray();
+            System.arraycopy(ids, 0, all, offset, ids.length);
+            offset += ids.length;
+        }
+        Arrays.sort(all);
+        int unique = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                all[unique++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, unique);
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[k++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    private void checkingFromParameter(int from, int listSize) {
+        if (from > listSize) {
+            throw new IllegalArgumentException("Parameter from must be lower size list");
+        }
+    }
+
+    private static class Document {
+
+        private final boolean available;
+        private final String[] nameTokens;
+        private final String[] descriptionTokens;
+
+        Document(boolean available, String[] nameTokens, String[] descriptionTokens) {
+            this.available = available;
+            this.nameTokens = nameTokens;
+            this.descriptionTokens = descriptionTokens;
+        }
+    }
+
+    private static class Index {
+
+        private final NavigableMap<String, PostingList> textTokens = new TreeMap<>();
+        private final NavigableMap<String, PostingList> nameTokens = new TreeMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final Set<Long> deletedItems = new HashSet<>();
+
+        void putIfAbsent(Item item) {
+            if (!documents.containsKey(item.getId()) && !deletedItems.contains(item.getId())) {
+                put(item);
+            }
+        }
+
+        void put(Item item) {
+            remove(item.getId());
+            List<String> name = tokenize(item.getName());
+            List<String> description = tokenize(item.getDescription());
+            description.removeAll(name);
+            String[] nameTerms = new String[name.size()];
+            for (int i = 0; i < nameTerms.length; i++) {
+                nameTerms[i] = addPosting(textTokens, name.get(i), item.getId());
+                addPosting(nameTokens, nameTerms[i], item.getId());
+            }
+            String[] descriptionTerms = new String[description.size()];
+            for (int i = 0; i < descriptionTerms.length; i++) {
+                descriptionTerms[i] = addPosting(textTokens, description.get(i), item.getId());
+            }
+            documents.put(item.getId(), new Document(item.getAvailable(), nameTerms, descriptionTerms));
+        }
+
+        void remove(long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (String token : document.nameTokens) {
+                removePosting(nameTokens, token, id);
+                removePosting(textTokens, token, id);
+            }
+            for (String token : document.descriptionTokens) {
+                removePosting(textTokens, token, id);
+            }
+        }
+
+        long[] match(NavigableMap<String, PostingList> dictionary, List<String> tokens) {
+            long[] result = null;
+            for (String token : tokens) {
+                Collection<PostingList> postings = dictionary
+                        .subMap(token, true, token + Character.MAX_VALUE, false)
+                        .values();
+                long[] ids = postings.isEmpty() ? EMPTY : union(postings);
+                result = result == null ? ids : intersect(result, ids);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        void trimToSize() {
+            textTokens.values().forEach(PostingList::trimToSize);
+            nameTokens.values().forEach(PostingList::trimToSize);
+        }
+
+        private static String addPosting(NavigableMap<String, PostingList> dictionary, String token, long id) {
+            Map.Entry<String, PostingList> entry = dictionary.ceilingEntry(token);
+            if (entry == null || !entry.getKey().equals(token)) {
+                PostingList posting = new PostingList();
+                posting.add(id);
+                dictionary.put(token, posting);
+                return token;
+            }
+            entry.getValue().add(id);
+            return entry.getKey();
+        }
+
+        private static void removePosting(Map<String, PostingList> dictionary, String token, long id) {
+            PostingList posting = dictionary.get(token);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    dictionary.remove(token);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<ItemDto> search(String text, int from, Integer size);
+
+    List<ItemDto> searchAvailable(String text, LocalDateTime start, LocalDateTime end, int from, Integer size);
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+class PostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int MIN_PENDING = 8;
+    private static final int MAX_PENDING = 1024;
+    private static final long[] EMPTY = new long[0];
+
+    private byte[] data = new byte[INITIAL_CAPACITY];
+    private int length;
+    private int encoded;
+    private long last;
+    private long[] added = EMPTY;
+    private int addedCount;
+    private long[] removed = EMPTY;
+    private int removedCount;
+
+    void add(long id) {
+        int position = Arrays.binarySearch(removed, 0, removedCount, id);
+        if (position >= 0) {
+            removedCount = delete(removed, removedCount, position);
+        } else if (encoded == 0 || id > last) {
+            append(id);
+        } else {
+            added = insert(added, addedCount, id);
+            addedCount++;
+            mergeIfFull();
+        }
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(added, 0, addedCount, id);
+        if (position >= 0) {
+            addedCount = delete(added, addedCount, position);
+        } else {
+            removed = insert(removed, removedCount, id);
+            removedCount++;
+            mergeIfFull();
+        }
+    }
+
+    long[] toArray() {
+        long[] ids = decode();
+        if (addedCount == 0 && removedCount == 0) {
+            return ids;
+        }
+        long[] result = new long[size()];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        int r = 0;
+        while (i < ids.length || j < addedCount) {
+            long next;
+            if (j == addedCount || i < ids.length && ids[i] < added[j]) {
+                next = ids[i++];
+                while (r < removedCount && removed[r] < next) {
+                    r++;
+                }
+                if (r < removedCount && removed[r] == next) {
+                    continue;
+                }
+            } else {
+                next = added[j++];
+            }
+            result[k++] = next;
+        }
+        return result;
+    }
+
+    int size() {
+        return encoded + addedCount - removedCount;
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    void trimToSize() {
+        merge();
+        if (data.length > length) {
+            data = Arrays.copyOf(data, Math.max(length, 1));
+        }
+    }
+
+    private void mergeIfFull() {
+        int pending = addedCount + removedCount;
+        if (pending >= Math.min(MAX_PENDING, Math.max(MIN_PENDING, encoded / 8))) {
+            merge();
+        }
+    }
+
+    private void merge() {
+        if (addedCount == 0 && removedCount == 0) {
+            return;
+        }
+        long[] ids = toArray();
+        added = EMPTY;
+        addedCount = 0;
+        removed = EMPTY;
+        removedCount = 0;
+        data = new byte[Math.max(INITIAL_CAPACITY, ids.length * 2)];
+        length = 0;
+        encoded = 0;
+        last = 0;
+        for (long id : ids) {
+            append(id);
+        }
+    }
+
+    private long[] decode() {
+        long[] ids = new long[encoded];
+        long current = 0;
+        int offset = 0;
+        for (int i = 0; i < encoded; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            current += delta;
+            ids[i] = current;
+        }
+        return ids;
+    }
+
+    private void append(long id) {
+        long value = encoded == 0 ? id : id - last;
+        ensureCapacity(length + 10);
+        while ((value & ~0x7FL) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+        last = id;
+        encoded++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > data.length) {
+            data = Arrays.copyOf(data, Math.max(capacity, data.length * 2));
+        }
+    }
+
+    private static long[] insert(long[] ids, int count, long id) {
+        int position = -Arrays.binarySearch(ids, 0, count, id) - 1;
+        long[] target = count < ids.length ? ids : Arrays.copyOf(ids, Math.max(MIN_PENDING, count * 2));
+        System.arraycopy(ids, position, target, position + 1, count - position);
+        target[position] = id;
+        return target;
+    }
+
+    private static int delete(long[] ids, int count, int position) {
+        System.arraycopy(ids, position + 1, ids, position, count - position - 1);
+        return count - 1;
+    }
+}
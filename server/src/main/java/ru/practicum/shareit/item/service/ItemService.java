@@ -1,11 +1,17 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemsByOwnerDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
@@ -13,13 +19,29 @@ public interface ItemService {
 
     ItemDto update(long userId, ItemDto itemDto, long itemId);
 
+    List<ItemBatchResultDto> addAll(long userId, List<ItemDto> itemDtos);
+
+    List<ItemBatchResultDto> updateAll(long userId, List<ItemDto> itemDtos);
+
     ItemsByOwnerDto getById(long itemId, long userId);
 
-    List<ItemsByOwnerDto> getItemsByUserId(long userId, int from, Integer size);
+    List<ItemsByOwnerDto> getItemsByUserId(long userId, int from, Integer size, Long after);
+
+    void exportItemsByUserId(long userId, Consumer<ItemsByOwnerDto> action);
 
     List<ItemDto> getSearch(String text, int from, Integer size);
 
+    List<ItemDto> getSearchAvailable(String text, LocalDateTime start, LocalDateTime end, int from, Integer size);
+
     Item getItemById(long id);
 
+    Item getItemByIdForUpdate(long id);
+
     CommentDto addComment(CommentDto commentDto, long userId, long itemId);
+
+    CommentPageDto getComments(long itemId, String cursor, int size);
+
+    ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemRequestDto> getMatchingRequests(long itemId, long userId, int size);
 }
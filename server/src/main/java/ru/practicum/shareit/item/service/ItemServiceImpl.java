@@ -1,46 +1,95 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.cache.BookingInterval;
+import ru.practicum.shareit.item.cache.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.cache.ItemOwnerBookings;
+import ru.practicum.shareit.item.dao.CommentRank;
 import ru.practicum.shareit.item.dao.CommentRepository;
 import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemBatchStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemsByOwnerDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.user.exception.IllegalUserException;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.search.ItemRequestMatcher;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
+    private static final int EXPORT_CHUNK_SIZE = 100;
+
     private final ItemRepository repository;
     private final UserService userService;
     private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryService summaryService;
     private final CommentRepository commentRepository;
+    private final ItemRequestRepository requestRepository;
+    private final ItemSearchEngine searchEngine;
+    private final ItemRequestMatcher requestMatcher;
+    private final ItemDetailsCache itemDetailsCache;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
+    @Value("${shareit.item-comments.preview-size:10}")
+    private int commentsPreviewSize;
 
     @Override
     @Transactional
     public ItemDto add(long userId, ItemDto itemDto) {
         userService.getById(userId);
-        Item item = ItemMapper.mapToItem(itemDto, userId);
-        return ItemMapper.mapToItemDto(repository.save(item));
+        Item item = repository.save(ItemMapper.mapToItem(itemDto, userId));
+        eventPublisher.publishEvent(new ItemSavedEvent(item));
+        return ItemMapper.mapToItemDto(item);
     }
 
     @Override
@@ -50,8 +99,9 @@ public class ItemServiceImpl implements ItemService {
         if (userId == oldItem.getOwnerId()) {
             Item item = ItemMapper.mapToItem(itemDto, userId);
             item.setId(itemId);
-            Item newItem = buildingItem(item, oldItem);
-            return ItemMapper.mapToItemDto(repository.save(newItem));
+            Item newItem = repository.save(buildingItem(item, oldItem));
+            eventPublisher.publishEvent(new ItemSavedEvent(newItem));
+            return ItemMapper.mapToItemDto(newItem);
         } else {
             throw new IllegalUserException(
                     String.format("User with ID=%s does not have access to item with ID=%s", userId, itemId)
@@ -61,82 +111,121 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional
+    public List<ItemBatchResultDto> addAll(long userId, List<ItemDto> itemDtos) {
+        userService.getById(userId);
+        Set<Long> requestIds = findExistingRequestIds(itemDtos);
+        List<ItemBatchResultDto> results = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            String error = validateNewItem(itemDto, requestIds);
+            if (error != null) {
+                results.add(failedResult(i, itemDto, error));
+            } else {
+                Item item = ItemMapper.mapToItem(itemDto, userId);
+                item.setId(0);
+                items.add(item);
+                indexes.add(i);
+            }
+        }
+        List<Item> savedItems = repository.saveAll(items);
+        for (int i = 0; i < savedItems.size(); i++) {
+            Item item = savedItems.get(i);
+            eventPublisher.publishEvent(new ItemSavedEvent(item));
+            results.add(savedResult(indexes.get(i), ItemBatchStatus.CREATED, item));
+        }
+        results.sort(Comparator.comparingInt(ItemBatchResultDto::getIndex));
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public List<ItemBatchResultDto> updateAll(long userId, List<ItemDto> itemDtos) {
+        Map<Long, Item> oldItems = repository.findAllById(itemDtos.stream()
+                        .map(ItemDto::getId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Set<Long> requestIds = findExistingRequestIds(itemDtos);
+        Set<Long> seenIds = new HashSet<>();
+        List<ItemBatchResultDto> results = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            Item oldItem = oldItems.get(itemDto.getId());
+            String error;
+            if (oldItem == null) {
+                error = String.format("Item with ID=%s doesn't exist", itemDto.getId());
+            } else if (oldItem.getOwnerId() != userId) {
+                error = String.format("User with ID=%s does not have access to item with ID=%s",
+                        userId, itemDto.getId());
+            } else if (!seenIds.add(itemDto.getId())) {
+                error = String.format("Item with ID=%s is listed more than once", itemDto.getId());
+            } else {
+                error = validateItemChanges(itemDto, requestIds);
+            }
+            if (error != null) {
+                results.add(failedResult(i, itemDto, error));
+            } else {
+                items.add(buildingItem(ItemMapper.mapToItem(itemDto, userId), oldItem));
+                indexes.add(i);
+            }
+        }
+        List<Item> savedItems = repository.saveAll(items);
+        for (int i = 0; i < savedItems.size(); i++) {
+            Item item = savedItems.get(i);
+            eventPublisher.publishEvent(new ItemSavedEvent(item));
+            results.add(savedResult(indexes.get(i), ItemBatchStatus.UPDATED, item));
+        }
+        results.sort(Comparator.comparingInt(ItemBatchResultDto::getIndex));
+        return results;
+    }
+
+    @Override
     public ItemsByOwnerDto getById(long itemId, long userId) {
-        ItemsByOwnerDto item = ItemMapper.mapToItemsByOwnerDto(getItemById(itemId));
+        ItemsByOwnerDto item = itemDetailsCache.getView(itemId, this::loadItemView);
         if (item.getOwnerId() == userId) {
-            item.setLastBooking(BookingMapper.mapToBookingDto(bookingRepository.findByItem_IdAndEndBeforeAndStatusNotOrderByEndDesc(
-                    item.getId(),
-                    LocalDateTime.now(),
-                    BookingStatus.REJECTED)));
-            item.setNextBooking(BookingMapper.mapToBookingDto(bookingRepository.findByItem_IdAndStatusAndStartAfterOrderByStartAsc(
-                    item.getId(),
-                    BookingStatus.APPROVED,
-                    LocalDateTime.now())));
-        }
-        item.setComments(commentRepository.findAllByItemId(itemId).stream()
-                .map(CommentMapper::mapToCommentDto)
-                .collect(Collectors.toSet()));
-        System.out.println(commentRepository.findAllByItemId(itemId));
+            ItemOwnerBookings ownerBookings = itemDetailsCache.getOwnerBookings(itemId, this::loadOwnerBookings);
+            item.setLastBooking(ownerBookings.getLastBooking());
+            item.setNextBooking(ownerBookings.getNextBooking());
+        }
         return item;
     }
 
     @Override
     @Transactional
-    public List<ItemsByOwnerDto> getItemsByUserId(long userId, int from, Integer size) {
+    public List<ItemsByOwnerDto> getItemsByUserId(long userId, int from, Integer size, Long after) {
         userService.getById(userId);
-        List<Item> items = repository.findAllByOwnerId(userId);
-        checkingFromParameter(from, items.size());
-        if (size != null) {
-            return items.subList(from, items.size())
-                    .stream()
-                    .limit(size)
-                    .map(ItemMapper::mapToItemsByOwnerDto)
-                    .peek(i -> i.setLastBooking(BookingMapper.mapToBookingDto(
-                                    bookingRepository.findByItem_IdAndEndBeforeAndStatusNotOrderByEndDesc(
-                                            i.getId(),
-                                            LocalDateTime.now(),
-                                            BookingStatus.REJECTED)
-                            ))
-                    )
-                    .peek(i -> i.setNextBooking(BookingMapper.mapToBookingDto(
-                                    bookingRepository.findByItem_IdAndStatusAndStartAfterOrderByStartAsc(
-                                            i.getId(),
-                                            BookingStatus.APPROVED,
-                                            LocalDateTime.now())
-                            ))
-                    )
-                    .peek(i -> {
-                        i.setComments(commentRepository.findAllByItemId(i.getId()).stream()
-                                .map(CommentMapper::mapToCommentDto)
-                                .collect(Collectors.toSet()));
-                    })
-                    .sorted((i1, i2) -> (int) (i1.getId() - i2.getId()))
-                    .collect(Collectors.toList());
+        List<Item> items;
+        if (after != null) {
+            items = repository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(userId, after,
+                    OffsetPageRequest.of(0, size));
         } else {
-            return items.subList(from, items.size())
-                    .stream()
-                    .map(ItemMapper::mapToItemsByOwnerDto)
-                    .peek(i -> i.setLastBooking(BookingMapper.mapToBookingDto(
-                                    bookingRepository.findByItem_IdAndEndBeforeAndStatusNotOrderByEndDesc(
-                                            i.getId(),
-                                            LocalDateTime.now(),
-                                            BookingStatus.REJECTED)
-                            ))
-                    )
-                    .peek(i -> i.setNextBooking(BookingMapper.mapToBookingDto(
-                                    bookingRepository.findByItem_IdAndStatusAndStartAfterOrderByStartAsc(
-                                            i.getId(),
-                                            BookingStatus.APPROVED,
-                                            LocalDateTime.now())
-                            ))
-                    )
-                    .peek(i -> {
-                        i.setComments(commentRepository.findAllByItemId(i.getId()).stream()
-                                .map(CommentMapper::mapToCommentDto)
-                                .collect(Collectors.toSet()));
-                    })
-                    .sorted((i1, i2) -> (int) (i1.getId() - i2.getId()))
-                    .collect(Collectors.toList());
+            items = repository.findAllByOwnerIdOrderByIdAsc(userId, OffsetPageRequest.of(from, size));
+            if (items.isEmpty() && from > 0) {
+                checkingFromParameter(from, repository.countByOwnerId(userId));
+            }
+        }
+        return enrichItems(items);
+    }
+
+    @Override
+    @Transactional
+    public void exportItemsByUserId(long userId, Consumer<ItemsByOwnerDto> action) {
+        userService.getById(userId);
+        try (Stream<Item> items = repository.streamAllByOwnerId(userId)) {
+            List<Item> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            Iterator<Item> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !iterator.hasNext()) {
+                    enrichItems(chunk).forEach(action);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
         }
     }
 
@@ -146,22 +235,19 @@ public class ItemServiceImpl implements ItemService {
         if (text.isEmpty()) {
             return List.of();
         }
-        List<Item> items = repository.findAllByNameOrDescriptionContainingIgnoreCase(text, text);
-        checkingFromParameter(from, items.size());
-        if (size != null) {
-            return items.subList(from, items.size())
-                    .stream()
-                    .filter(Item::getAvailable)
-                    .limit(size)
-                    .map(ItemMapper::mapToItemDto)
-                    .collect(Collectors.toList());
-        } else {
-            return items.subList(from, items.size())
-                    .stream()
-                    .filter(Item::getAvailable)
-                    .map(ItemMapper::mapToItemDto)
-                    .collect(Collectors.toList());
+        return searchEngine.search(text, from, size);
+    }
+
+    @Override
+    @Transactional
+    public List<ItemDto> getSearchAvailable(String text, LocalDateTime start, LocalDateTime end, int from, Integer size) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Parameter start must be before end");
+        }
+        if (text.isEmpty()) {
+            return List.of();
         }
+        return searchEngine.searchAvailable(text, start, end, from, size);
     }
 
     @Transactional
@@ -174,6 +260,13 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    @Override
+    @Transactional
+    public Item getItemByIdForUpdate(long id) {
+        return repository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ItemNotFoundException(String.format("Item with ID=%s doesn't exist", id)));
+    }
+
     @Override
     @Transactional
     public CommentDto addComment(CommentDto commentDto, long userId, long itemId) {
@@ -181,9 +274,10 @@ public class ItemServiceImpl implements ItemService {
                 commentDto,
                 UserMapper.mapToUser(userService.getById(userId)),
                 itemId);
-        Booking booking = bookingRepository.findByBookerIdAndItem_IdAndEndBefore(userId, itemId, LocalDateTime.now());
-        if (booking != null) {
-            return CommentMapper.mapToCommentDto(commentRepository.save(comment));
+        if (bookingRepository.existsFinishedByBookerIdAndItemId(userId, itemId, LocalDateTime.now())) {
+            Comment savedComment = commentRepository.save(comment);
+            eventPublisher.publishEvent(new CommentAddedEvent(savedComment));
+            return CommentMapper.mapToCommentDto(savedComment);
         } else {
             throw new IllegalArgumentException(
                     String.format("User with ID=%s does not use item with ID=%s",
@@ -192,6 +286,216 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    @Override
+    @Transactional
+    public CommentPageDto getComments(long itemId, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Parameter size must not be less than one");
+        }
+        getItemById(itemId);
+        List<CommentDto> comments;
+        if (cursor != null) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            comments = commentRepository.findPageByItemIdBefore(itemId, position.getTimestamp(), position.getId(),
+                    OffsetPageRequest.of(0, size + 1));
+        } else {
+            comments = commentRepository.findPageByItemId(itemId, OffsetPageRequest.of(0, size + 1));
+        }
+        String nextCursor = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            CommentDto last = comments.get(size - 1);
+            nextCursor = new KeysetCursor(last.getCreated(), last.getId()).encode();
+        }
+        return CommentPageDto.builder()
+                .comments(comments)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Parameter from must be before to");
+        }
+        List<BookingInterval> bookings = availabilityIndex.getBusy(itemId, from, to, id -> {
+            getItemById(id);
+            return bookingRepository.findIntervalsByItemId(id, ItemAvailabilityIndex.BUSY_STATUSES);
+        });
+        List<AvailabilityIntervalDto> busy = new ArrayList<>();
+        List<AvailabilityIntervalDto> free = new ArrayList<>();
+        LocalDateTime position = from;
+        LocalDateTime busyStart = null;
+        for (BookingInterval booking : bookings) {
+            LocalDateTime start = booking.getStart().isAfter(from) ? booking.getStart() : from;
+            LocalDateTime end = booking.getEnd().isBefore(to) ? booking.getEnd() : to;
+            if (busyStart != null && start.isAfter(position)) {
+                busy.add(new AvailabilityIntervalDto(busyStart, position));
+                busyStart = null;
+            }
+            if (busyStart == null) {
+                if (start.isAfter(position)) {
+                    free.add(new AvailabilityIntervalDto(position, start));
+                }
+                busyStart = start;
+            }
+            if (end.isAfter(position)) {
+                position = end;
+            }
+        }
+        if (busyStart != null) {
+            busy.add(new AvailabilityIntervalDto(busyStart, position));
+        }
+        if (position.isBefore(to)) {
+            free.add(new AvailabilityIntervalDto(position, to));
+        }
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(busy)
+                .free(free)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public List<ItemRequestDto> getMatchingRequests(long itemId, long userId, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Parameter size must be positive");
+        }
+        Item item = getItemById(itemId);
+        if (userId != item.getOwnerId()) {
+            throw new IllegalUserException(
+                    String.format("User with ID=%s does not have access to item with ID=%s", userId, itemId)
+            );
+        }
+        List<Long> ids = requestMatcher.match(item.getName() + " " + item.getDescription(), userId, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ItemRequest> requests = requestRepository.findAllWithRequesterByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        return ids.stream()
+                .map(requests::get)
+                .filter(Objects::nonNull)
+                .map(ItemRequestMapper::mapToItemRequestDto)
+                .collect(Collectors.toList());
+    }
+
+    private ItemsByOwnerDto loadItemView(long itemId) {
+        ItemsByOwnerDto item = ItemMapper.mapToItemsByOwnerDto(getItemById(itemId));
+        attachLatestComments(List.of(item));
+        return item;
+    }
+
+    private void attachLatestComments(List<ItemsByOwnerDto> items) {
+        List<Long> itemIds = items.stream()
+                .map(ItemsByOwnerDto::getId)
+                .collect(Collectors.toList());
+        List<CommentRank> ranks = commentRepository.findLatestRanksByItemIds(itemIds, commentsPreviewSize);
+        Map<Long, List<CommentDto>> comments = ranks.stream()
+                .map(CommentMapper::mapToCommentDto)
+                .collect(Collectors.groupingBy(CommentDto::getItemId));
+        Map<Long, Long> counts = new HashMap<>();
+        ranks.forEach(rank -> counts.put(rank.getItemId(), rank.getTotal()));
+        for (ItemsByOwnerDto item : items) {
+            item.setComments(comments.getOrDefault(item.getId(), List.of()));
+            item.setCommentsCount(counts.getOrDefault(item.getId(), 0L));
+        }
+    }
+
+    private ItemOwnerBookings loadOwnerBookings(long itemId) {
+        ItemBookingSummary summary = summaryService.getSummaries(List.of(itemId)).get(itemId);
+        if (summary == null) {
+            return new ItemOwnerBookings(null, null, LocalDateTime.MAX);
+        }
+        return new ItemOwnerBookings(
+                lastBooking(summary),
+                BookingMapper.mapToBookingDto(summary.getNextBooking()),
+                summary.getRefreshAt() != null ? summary.getRefreshAt() : LocalDateTime.MAX);
+    }
+
+    private static BookingDto lastBooking(ItemBookingSummary summary) {
+        return summary.getLastBooking() != null
+                ? BookingMapper.mapToBookingDto(summary.getLastBooking())
+                : BookingMapper.mapToBookingDto(summary.getLastArchivedBooking());
+    }
+
+    private List<ItemsByOwnerDto> enrichItems(List<Item> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, ItemBookingSummary> summaries = summaryService.getSummaries(itemIds);
+        List<ItemsByOwnerDto> result = items.stream()
+                .map(ItemMapper::mapToItemsByOwnerDto)
+                .peek(i -> {
+                    ItemBookingSummary summary = summaries.get(i.getId());
+                    if (summary != null) {
+                        i.setLastBooking(lastBooking(summary));
+                        i.setNextBooking(BookingMapper.mapToBookingDto(summary.getNextBooking()));
+                    }
+                })
+                .collect(Collectors.toList());
+        attachLatestComments(result);
+        return result;
+    }
+
+    private Set<Long> findExistingRequestIds(List<ItemDto> itemDtos) {
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return requestIds.isEmpty() ? Set.of() : Set.copyOf(requestRepository.findExistingIds(requestIds));
+    }
+
+    private String validateNewItem(ItemDto itemDto, Set<Long> requestIds) {
+        if (itemDto.getName() == null) {
+            return "Field name must not be blank";
+        }
+        if (itemDto.getDescription() == null) {
+            return "Field description must not be empty";
+        }
+        if (itemDto.getAvailable() == null) {
+            return "Field available must not be null";
+        }
+        return validateItemChanges(itemDto, requestIds);
+    }
+
+    private String validateItemChanges(ItemDto itemDto, Set<Long> requestIds) {
+        if (itemDto.getName() != null && itemDto.getName().isBlank()) {
+            return "Field name must not be blank";
+        }
+        if (itemDto.getDescription() != null && itemDto.getDescription().isEmpty()) {
+            return "Field description must not be empty";
+        }
+        if (itemDto.getRequestId() != null && !requestIds.contains(itemDto.getRequestId())) {
+            return String.format("Request with ID=%s doesn't exist", itemDto.getRequestId());
+        }
+        return null;
+    }
+
+    private ItemBatchResultDto failedResult(int index, ItemDto itemDto, String error) {
+        return ItemBatchResultDto.builder()
+                .index(index)
+                .status(ItemBatchStatus.FAILED)
+                .item(itemDto)
+                .error(error)
+                .build();
+    }
+
+    private ItemBatchResultDto savedResult(int index, ItemBatchStatus status, Item item) {
+        return ItemBatchResultDto.builder()
+                .index(index)
+                .status(status)
+                .item(ItemMapper.mapToItemDto(item))
+                .build();
+    }
+
     private Item buildingItem(Item newItem, Item oldItem) {
         if (newItem.getName() == null) {
             newItem.setName(oldItem.getName());
@@ -208,7 +512,7 @@ public class ItemServiceImpl implements ItemService {
         return newItem;
     }
 
-    private void checkingFromParameter(int from, int listSize) {
+    private void checkingFromParameter(long from, long listSize) {
         if (from > listSize) {
             throw new IllegalArgumentException("Parameter from must be lower size list");
         }
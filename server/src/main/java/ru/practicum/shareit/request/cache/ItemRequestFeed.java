@@ -0,0 +1,227 @@
+package ru.practicum.shareit.request.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemByRequestDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.dto.ItemRequestWithAnswerDto;
+import ru.practicum.shareit.request.event.ItemRequestAddedEvent;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+@Component
+public class ItemRequestFeed {
+
+    private static final Comparator<ItemRequestWithAnswerDto> NEWEST_FIRST = Comparator
+            .comparing(ItemRequestWithAnswerDto::getCreated)
+            .thenComparingLong(ItemRequestWithAnswerDto::getId)
+            .reversed();
+
+    private final int capacity;
+    private final Counter hits;
+    private final Counter fallbacks;
+    private Deque<ItemRequestWithAnswerDto> window = new ArrayDeque<>();
+    private final Map<Long, ItemRequestWithAnswerDto> byId = new HashMap<>();
+    private final Map<Long, Long> answerRequestIds = new HashMap<>();
+    private boolean loaded;
+    private boolean complete;
+    private long changes;
+
+    public ItemRequestFeed(@Value("${shareit.request-feed.capacity:1000}") int capacity, MeterRegistry registry) {
+        this.capacity = capacity;
+        this.hits = Counter.builder("shareit.request.feed.requests")
+                .tag("result", "hit")
+                .register(registry);
+        this.fallbacks = Counter.builder("shareit.request.feed.requests")
+                .tag("result", "fallback")
+                .register(registry);
+        Gauge.builder("shareit.request.feed.size", this, ItemRequestFeed::size)
+                .register(registry);
+    }
+
+    public Optional<List<ItemRequestWithAnswerDto>> page(long userId, int from, Integer size,
+                                                         IntFunction<List<ItemRequestWithAnswerDto>> loader) {
+        return serve(userId, from, size, request -> true, loader);
+    }
+
+    public Optional<List<ItemRequestWithAnswerDto>> pageAfter(long userId, KeysetCursor cursor, Integer size,
+                                                              IntFunction<List<ItemRequestWithAnswerDto>> loader) {
+        return serve(userId, 0, size, request -> request.getCreated().isBefore(cursor.getTimestamp())
+                || request.getCreated().isEqual(cursor.getTimestamp()) && request.getId() < cursor.getId(), loader);
+    }
+
+    public synchronized int size() {
+        return window.size();
+    }
+
+    public synchronized void invalidate() {
+        changes++;
+        clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRequestAdded(ItemRequestAddedEvent event) {
+        changes++;
+        if (!loaded) {
+            return;
+        }
+        ItemRequestWithAnswerDto request = copy(ItemRequestMapper.mapToItemRequestWithAnswerDto(event.getRequest(),
+                List.of()));
+        if (window.isEmpty() || NEWEST_FIRST.compare(request, window.peekFirst()) <= 0) {
+            window.addFirst(request);
+        } else {
+            List<ItemRequestWithAnswerDto> sorted = new ArrayList<>(window);
+            sorted.add(request);
+            sorted.sort(NEWEST_FIRST);
+            window = new ArrayDeque<>(sorted);
+        }
+        byId.put(request.getId(), request);
+        while (window.size() > capacity) {
+            ItemRequestWithAnswerDto oldest = window.removeLast();
+            byId.remove(oldest.getId());
+            oldest.getItems().forEach(item -> answerRequestIds.remove(item.getId()));
+            complete = false;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onItemSaved(ItemSavedEvent event) {
+        Item item = event.getItem();
+        if (item.getRequestId() == null && !answerRequestIds.containsKey(item.getId())) {
+            return;
+        }
+        changes++;
+        if (!loaded) {
+            return;
+        }
+        Long previousRequestId = answerRequestIds.remove(item.getId());
+        if (previousRequestId != null) {
+            byId.get(previousRequestId).getItems().removeIf(answer -> answer.getId() == item.getId());
+        }
+        ItemRequestWithAnswerDto request = item.getRequestId() != null ? byId.get(item.getRequestId()) : null;
+        if (request != null) {
+            request.getItems().add(ItemMapper.mapToItemByRequestDto(item));
+            request.getItems().sort(Comparator.comparingLong(ItemByRequestDto::getId));
+            answerRequestIds.put(item.getId(), request.getId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserUpdated(UserUpdatedEvent event) {
+        User user = event.getUser();
+        changes++;
+        window.stream()
+                .map(ItemRequestWithAnswerDto::getRequester)
+                .filter(requester -> requester.getId() == user.getId())
+                .forEach(requester -> {
+                    requester.setName(user.getName());
+                    requester.setEmail(user.getEmail());
+                });
+    }
+
+    private Optional<List<ItemRequestWithAnswerDto>> serve(long userId, int from, Integer size,
+                                                           Predicate<ItemRequestWithAnswerDto> after,
+                                                           IntFunction<List<ItemRequestWithAnswerDto>> loader) {
+        ensureLoaded(loader);
+        long limit = size != null ? size : Long.MAX_VALUE;
+        List<ItemRequestWithAnswerDto> result = new ArrayList<>();
+        synchronized (this) {
+            if (!loaded) {
+                fallbacks.increment();
+                return Optional.empty();
+            }
+            int skipped = 0;
+            Iterator<ItemRequestWithAnswerDto> iterator = window.iterator();
+            while (iterator.hasNext() && result.size() < limit) {
+                ItemRequestWithAnswerDto request = iterator.next();
+                if (request.getRequester().getId() == userId || !after.test(request)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                } else {
+                    result.add(copy(request));
+                }
+            }
+            if (result.size() < limit && !complete) {
+                fallbacks.increment();
+                return Optional.empty();
+            }
+        }
+        hits.increment();
+        return Optional.of(result);
+    }
+
+    private void ensureLoaded(IntFunction<List<ItemRequestWithAnswerDto>> loader) {
+        long stamp;
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            stamp = changes;
+        }
+        List<ItemRequestWithAnswerDto> newest = loader.apply(capacity);
+        synchronized (this) {
+            if (loaded || stamp != changes) {
+                return;
+            }
+            clear();
+            newest.forEach(request -> {
+                ItemRequestWithAnswerDto entry = copy(request);
+                window.addLast(entry);
+                byId.put(entry.getId(), entry);
+                entry.getItems().forEach(item -> answerRequestIds.put(item.getId(), entry.getId()));
+            });
+            complete = newest.size() < capacity;
+            loaded = true;
+        }
+    }
+
+    private void clear() {
+        window = new ArrayDeque<>();
+        byId.clear();
+        answerRequestIds.clear();
+        loaded = false;
+        complete = false;
+    }
+
+    private static ItemRequestWithAnswerDto copy(ItemRequestWithAnswerDto request) {
+        User requester = request.getRequester();
+        return ItemRequestWithAnswerDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .requester(new User(requester.getId(), requester.getName(), requester.getEmail()))
+                .created(request.getCreated())
+                .items(request.getItems().stream()
+                        .map(item -> item.toBuilder().build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswerDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -13,6 +17,8 @@ import java.util.List;
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ItemRequestService itemRequestService;
 
     @PostMapping
@@ -31,12 +37,19 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestWithAnswerDto> getRequests(
+    public ResponseEntity<List<ItemRequestWithAnswerDto>> getRequests(
            @RequestHeader("X-Sharer-User-Id") long userId,
            @RequestParam(name = "from", defaultValue = "0", required = false) int from,
-           @RequestParam(name = "size", required = false) Integer size
+           @RequestParam(name = "size", required = false) Integer size,
+           @RequestParam(name = "cursor", required = false) String cursor
     ) {
-        return itemRequestService.getRequests(userId, from, size);
+        List<ItemRequestWithAnswerDto> requests = itemRequestService.getRequests(userId, from, size, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (size != null && requests.size() == size) {
+            ItemRequestWithAnswerDto last = requests.get(requests.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, new KeysetCursor(last.getCreated(), last.getId()).encode());
+        }
+        return response.body(requests);
     }
 
     @GetMapping("/{requestId}")
@@ -46,4 +59,13 @@ public class ItemRequestController {
     ) {
         return itemRequestService.getRequestById(requestId, userId);
     }
+
+    @GetMapping(path = "/{requestId}/answers/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAnswers(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PathVariable long requestId,
+            @RequestParam(name = "after", defaultValue = "0", required = false) long after
+    ) {
+        return itemRequestService.streamAnswers(requestId, userId, after);
+    }
 }
@@ -1,15 +1,42 @@
 package ru.practicum.shareit.request.dao;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findAllByRequester_IdNotOrderByCreatedDesc(long userId);
+    @Query("select r from ItemRequest r join fetch r.requester u " +
+            "where u.id <> :userId " +
+            "and r.created <= :beforeCreated and (r.created < :beforeCreated or r.id < :beforeId) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findAllByRequesterIdNot(@Param("userId") long userId,
+                                              @Param("beforeCreated") LocalDateTime beforeCreated,
+                                              @Param("beforeId") long beforeId,
+                                              Pageable pageable);
 
-    List<ItemRequest> findAllByRequester_IdOrderByCreatedDesc(long userId);
+    @Query("select r from ItemRequest r join fetch r.requester order by r.created desc, r.id desc")
+    List<ItemRequest> findNewest(Pageable pageable);
+
+    @Query("select r from ItemRequest r join fetch r.requester u where u.id = :userId order by r.created desc")
+    List<ItemRequest> findAllByRequester_IdOrderByCreatedDesc(@Param("userId") long userId);
+
+    @Query("select r from ItemRequest r join fetch r.requester " +
+            "where r.id > :lastId and not exists (select i.id from Item i where i.requestId = r.id) " +
+            "order by r.id")
+    List<ItemRequest> findOpenAfter(@Param("lastId") long lastId, Pageable pageable);
+
+    @Query("select r from ItemRequest r join fetch r.requester where r.id in :ids")
+    List<ItemRequest> findAllWithRequesterByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select r.id from ItemRequest r where r.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
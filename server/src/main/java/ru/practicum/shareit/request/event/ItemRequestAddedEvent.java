@@ -0,0 +1,10 @@
+package ru.practicum.shareit.request.event;
+
+import lombok.Data;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+@Data
+public class ItemRequestAddedEvent {
+
+    private final ItemRequest request;
+}
@@ -0,0 +1,249 @@
+package ru.practicum.shareit.request.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.event.ItemRequestAddedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemRequestMatcher {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final Comparator<Match> WORST_FIRST = Comparator
+            .comparingDouble(Match::getScore)
+            .thenComparingLong(Match::getRequestId);
+
+    private final ItemRequestRepository repository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    private Index rebuilding;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Index rebuilt = new Index();
+        lock.writeLock().lock();
+        try {
+            rebuilding = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long lastId = 0;
+        List<ItemRequest> batch;
+        do {
+            batch = repository.findOpenAfter(lastId, OffsetPageRequest.of(0, BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                batch.forEach(rebuilt::putIfAbsent);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        lock.writeLock().lock();
+        try {
+            rebuilt.answered.forEach(rebuilt::remove);
+            rebuilt.answered.clear();
+            index = rebuilt;
+            rebuilding = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Request matching index built with {} open requests", rebuilt.documents.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestAdded(ItemRequestAddedEvent event) {
+        lock.writeLock().lock();
+        try {
+            index.putIfAbsent(event.getRequest());
+            if (rebuilding != null) {
+                rebuilding.putIfAbsent(event.getRequest());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        Long requestId = event.getItem().getRequestId();
+        if (requestId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            index.remove(requestId);
+            if (rebuilding != null) {
+                rebuilding.answered.add(requestId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            index.removeRequester(event.getUserId());
+            if (rebuilding != null) {
+                rebuilding.removeRequester(event.getUserId());
+                rebuilding.deletedRequesters.add(event.getUserId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> match(String text, long excludedRequesterId, int limit) {
+        Set<String> tokens = tokenize(text);
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int total = index.documents.size();
+            for (String token : tokens) {
+                Set<Long> posting = index.postings.get(token);
+                if (posting == null) {
+                    continue;
+                }
+                double weight = Math.log(1 + (double) total / posting.size());
+                for (long requestId : posting) {
+                    scores.merge(requestId, weight, Double::sum);
+                }
+            }
+            PriorityQueue<Match> best = new PriorityQueue<>(WORST_FIRST);
+            scores.forEach((requestId, score) -> {
+                Document document = index.documents.get(requestId);
+                if (document.requesterId == excludedRequesterId) {
+                    return;
+                }
+                best.add(new Match(requestId, score / Math.sqrt(document.tokens.size())));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            });
+            List<Match> result = new ArrayList<>(best);
+            result.sort(WORST_FIRST.reversed());
+            return result.stream()
+                    .map(Match::getRequestId)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<String> tokenize(String text) {
+        if (text == null) {
+            return Set.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+"))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private static class Match {
+
+        private final long requestId;
+        private final double score;
+
+        Match(long requestId, double score) {
+            this.requestId = requestId;
+            this.score = score;
+        }
+
+        long getRequestId() {
+            return requestId;
+        }
+
+        double getScore() {
+            return score;
+        }
+    }
+
+    private static class Document {
+
+        private final long requesterId;
+        private final Set<String> tokens;
+
+        Document(long requesterId, Set<String> tokens) {
+            this.requesterId = requesterId;
+            this.tokens = tokens;
+        }
+    }
+
+    private static class Index {
+
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final Set<Long> answered = new HashSet<>();
+        private final Set<Long> deletedRequesters = new HashSet<>();
+
+        void putIfAbsent(ItemRequest request) {
+            Set<String> tokens = tokenize(request.getDescription());
+            if (documents.containsKey(request.getId()) || answered.contains(request.getId())
+                    || deletedRequesters.contains(request.getRequester().getId()) || tokens.isEmpty()) {
+                return;
+            }
+            documents.put(request.getId(), new Document(request.getRequester().getId(), tokens));
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, t -> new HashSet<>()).add(request.getId());
+            }
+        }
+
+        void remove(long requestId) {
+            Document document = documents.remove(requestId);
+            if (document == null) {
+                return;
+            }
+            for (String token : document.tokens) {
+                Set<Long> posting = postings.get(token);
+                if (posting != null && posting.remove(requestId) && posting.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+
+        void removeRequester(long requesterId) {
+            List<Long> requestIds = documents.entrySet().stream()
+                    .filter(entry -> entry.getValue().requesterId == requesterId)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            requestIds.forEach(this::remove);
+        }
+    }
+}
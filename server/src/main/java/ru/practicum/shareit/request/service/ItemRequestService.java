@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswerDto;
 
@@ -10,7 +11,9 @@ public interface ItemRequestService {
 
     List<ItemRequestWithAnswerDto> getUserRequests(long userId);
 
-    List<ItemRequestWithAnswerDto> getRequests(long userId, int from, Integer size);
+    List<ItemRequestWithAnswerDto> getRequests(long userId, int from, Integer size, String cursor);
 
     ItemRequestWithAnswerDto getRequestById(long requestId, long userId);
+
+    SseEmitter streamAnswers(long requestId, long userId, long afterItemId);
 }
@@ -1,22 +1,33 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemByRequestDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.cache.ItemRequestFeed;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswerDto;
+import ru.practicum.shareit.request.event.ItemRequestAddedEvent;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.stream.RequestAnswerStream;
+import ru.practicum.shareit.user.exception.IllegalUserException;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.transaction.Transactional;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -24,55 +35,46 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
 
+    private static final KeysetCursor FIRST_PAGE = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
     private final ItemRequestRepository repository;
     private final UserService userService;
     private final ItemRepository itemRepository;
+    private final ItemRequestFeed feed;
+    private final RequestAnswerStream answerStream;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public ItemRequestDto addRequest(ItemRequestDto itemRequestDto, long userId) {
         ItemRequest itemRequest = ItemRequestMapper.mapToItemRequest(itemRequestDto,
                 UserMapper.mapToUser(userService.getById(userId)));
-        return ItemRequestMapper.mapToItemRequestDto(repository.save(itemRequest));
+        ItemRequest saved = repository.save(itemRequest);
+        eventPublisher.publishEvent(new ItemRequestAddedEvent(saved));
+        return ItemRequestMapper.mapToItemRequestDto(saved);
     }
 
     @Override
     @Transactional
     public List<ItemRequestWithAnswerDto> getUserRequests(long userId) {
         userService.getById(userId);
-        List<ItemRequest> requests = repository.findAllByRequester_IdOrderByCreatedDesc(userId);
-        List<ItemRequestWithAnswerDto> result = new ArrayList<>();
-        requests.forEach(itemRequest -> {
-            List<ItemByRequestDto> items = itemRepository.findAllByRequestId(itemRequest.getId())
-                    .stream()
-                    .map(ItemMapper::mapToItemByRequestDto)
-                    .collect(Collectors.toList());
-            result.add(ItemRequestMapper.mapToItemRequestWithAnswerDto(itemRequest, items));
-        });
-        return result;
+        return withAnswers(repository.findAllByRequester_IdOrderByCreatedDesc(userId));
     }
 
     @Override
     @Transactional
-    public List<ItemRequestWithAnswerDto> getRequests(long userId, int from, Integer size) {
-        List<ItemRequest> requests = repository.findAllByRequester_IdNotOrderByCreatedDesc(userId);
-        checkingFromParameter(from, requests.size());
-        List<ItemRequestWithAnswerDto> result = new ArrayList<>();
-        requests.forEach(itemRequest -> {
-            List<ItemByRequestDto> items = itemRepository.findAllByRequestId(itemRequest.getId())
-                    .stream()
-                    .map(ItemMapper::mapToItemByRequestDto)
-                    .collect(Collectors.toList());
-            result.add(ItemRequestMapper.mapToItemRequestWithAnswerDto(itemRequest, items));
-        });
-        if (size != null) {
-            return result.subList(from, requests.size())
-                    .stream()
-                    .limit(size)
-                    .collect(Collectors.toList());
-        } else {
-            return result.subList(from, requests.size());
+    public List<ItemRequestWithAnswerDto> getRequests(long userId, int from, Integer size, String cursor) {
+        if (cursor != null) {
+            KeysetCursor before = KeysetCursor.decode(cursor);
+            return feed.pageAfter(userId, before, size, this::findNewest)
+                    .orElseGet(() -> withAnswers(repository.findAllByRequesterIdNot(userId, before.getTimestamp(),
+                            before.getId(), OffsetPageRequest.of(0, size))));
+        }
+        List<ItemRequestWithAnswerDto> requests = findRequests(userId, from, size);
+        if (requests.isEmpty() && from > 0) {
+            checkingFromParameter(findRequests(userId, from - 1, 1));
         }
+        return requests;
     }
 
     @Override
@@ -91,8 +93,54 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         }
     }
 
-    private void checkingFromParameter(int from, int listSize) {
-        if (from > listSize) {
+    @Override
+    @Transactional
+    public SseEmitter streamAnswers(long requestId, long userId, long afterItemId) {
+        ItemRequest itemRequest = repository.findById(requestId)
+                .orElseThrow(() -> new ItemRequestNotFoundException(
+                        String.format("Request with ID=%s not found", requestId)));
+        if (itemRequest.getRequester().getId() != userId) {
+            throw new IllegalUserException(
+                    String.format("User with ID=%s does not have access to request with ID=%s", userId, requestId)
+            );
+        }
+        SseEmitter emitter = answerStream.subscribe(requestId, afterItemId);
+        answerStream.publish(requestId, itemRepository.findAllByRequestIdAndIdGreaterThanOrderByIdAsc(requestId,
+                        afterItemId)
+                .stream()
+                .map(ItemMapper::mapToItemByRequestDto)
+                .collect(Collectors.toList()));
+        return emitter;
+    }
+
+    private List<ItemRequestWithAnswerDto> withAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemByRequestDto>> answers = itemRepository.findAllByRequestIdIn(requests.stream()
+                        .map(ItemRequest::getId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(Item::getRequestId,
+                        Collectors.mapping(ItemMapper::mapToItemByRequestDto, Collectors.toList())));
+        return requests.stream()
+                .map(request -> ItemRequestMapper.mapToItemRequestWithAnswerDto(request,
+                        answers.getOrDefault(request.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private List<ItemRequestWithAnswerDto> findRequests(long userId, int from, Integer size) {
+        return feed.page(userId, from, size, this::findNewest)
+                .orElseGet(() -> withAnswers(repository.findAllByRequesterIdNot(userId, FIRST_PAGE.getTimestamp(),
+                        FIRST_PAGE.getId(), OffsetPageRequest.of(from, size))));
+    }
+
+    private List<ItemRequestWithAnswerDto> findNewest(int limit) {
+        return withAnswers(repository.findNewest(PageRequest.of(0, limit)));
+    }
+
+    private void checkingFromParameter(List<ItemRequestWithAnswerDto> lastSkipped) {
+        if (lastSkipped.isEmpty()) {
             throw new IllegalArgumentException("Parameter from must be lower size list");
         }
     }
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.request.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.item.dto.ItemByRequestDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class RequestAnswerStream {
+
+    private final long timeoutMs;
+    private final ExecutorService executor;
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Counter notified;
+
+    public RequestAnswerStream(@Value("${shareit.request-answers.timeout-ms:300000}") long timeoutMs,
+                               @Value("${shareit.request-answers.delivery-threads:2}") int deliveryThreads,
+                               MeterRegistry registry) {
+        this.timeoutMs = timeoutMs;
+        this.executor = Executors.newFixedThreadPool(deliveryThreads);
+        this.notified = Counter.builder("shareit.request.answers.notified")
+                .register(registry);
+        Gauge.builder("shareit.request.answers.subscribers", this, RequestAnswerStream::subscribers)
+                .register(registry);
+    }
+
+    public SseEmitter subscribe(long requestId, long afterItemId) {
+        return subscribe(requestId, afterItemId, new SseEmitter(timeoutMs));
+    }
+
+    public SseEmitter subscribe(long requestId, long afterItemId, SseEmitter emitter) {
+        Subscription subscription = new Subscription(requestId, afterItemId, emitter);
+        subscriptions.computeIfAbsent(requestId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscription));
+        return emitter;
+    }
+
+    public void publish(long requestId, List<ItemByRequestDto> answers) {
+        Set<Subscription> requestSubscriptions = subscriptions.get(requestId);
+        if (requestSubscriptions == null || answers.isEmpty()) {
+            return;
+        }
+        requestSubscriptions.forEach(subscription -> subscription.offer(answers));
+    }
+
+    public int subscribers() {
+        return subscriptions.values().stream()
+                .mapToInt(Set::size)
+                .sum();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        Item item = event.getItem();
+        if (item.getRequestId() != null) {
+            publish(item.getRequestId(), List.of(ItemMapper.mapToItemByRequestDto(item)));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        subscriptions.values().forEach(requestSubscriptions -> requestSubscriptions
+                .forEach(subscription -> subscription.emitter.complete()));
+        subscriptions.clear();
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.requestId, (id, requestSubscriptions) -> {
+            requestSubscriptions.remove(subscription);
+            return requestSubscriptions.isEmpty() ? null : requestSubscriptions;
+        });
+    }
+
+    private class Subscription {
+
+        private final long requestId;
+        private final long afterItemId;
+        private final SseEmitter emitter;
+        private final AtomicBoolean answered = new AtomicBoolean();
+
+        Subscription(long requestId, long afterItemId, SseEmitter emitter) {
+            this.requestId = requestId;
+            this.afterItemId = afterItemId;
+            this.emitter = emitter;
+        }
+
+        void offer(List<ItemByRequestDto> answers) {
+            List<ItemByRequestDto> unseen = answers.stream()
+                    .filter(answer -> answer.getId() > afterItemId)
+                    .collect(Collectors.toList());
+            if (unseen.isEmpty() || !answered.compareAndSet(false, true)) {
+                return;
+            }
+            remove(this);
+            try {
+                executor.execute(() -> deliver(unseen));
+            } catch (RejectedExecutionException e) {
+                emitter.complete();
+            }
+        }
+
+        private void deliver(List<ItemByRequestDto> answers) {
+            try {
+                for (ItemByRequestDto answer : answers) {
+                    emitter.send(SseEmitter.event()
+                            .name("answer")
+                            .id(String.valueOf(answer.getId()))
+                            .data(answer, MediaType.APPLICATION_JSON));
+                    notified.increment();
+                }
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Answer stream of request {} closed: {}", requestId, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class UserDeletedEvent {
+
+    private final long userId;
+    private final List<Long> itemIds;
+    private final List<Long> bookedItemIds;
+}
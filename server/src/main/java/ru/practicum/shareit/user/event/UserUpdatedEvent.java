@@ -0,0 +1,10 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Data;
+import ru.practicum.shareit.user.model.User;
+
+@Data
+public class UserUpdatedEvent {
+
+    private final User user;
+}
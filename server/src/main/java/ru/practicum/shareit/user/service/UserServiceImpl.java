@@ -1,10 +1,15 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.user.exception.IllegalUserException;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
 import ru.practicum.shareit.user.exception.DuplicateEmailException;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -20,6 +25,9 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository repository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -60,8 +68,9 @@ public class UserServiceImpl implements UserService {
             if (userId == oldUser.get().getId()) {
                 User user = UserMapper.mapToUser(userDto);
                 user.setId(userId);
-                User newUser = buildingUser(user, oldUser.get());
-                return UserMapper.mapToUserDto(repository.save(newUser));
+                User newUser = repository.save(buildingUser(user, oldUser.get()));
+                eventPublisher.publishEvent(new UserUpdatedEvent(newUser));
+                return UserMapper.mapToUserDto(newUser);
             } else {
                 throw new IllegalUserException(
                         String.format("User with ID=%s does not have access to user with ID=%s",
@@ -77,7 +86,10 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void deleteById(long userId) {
         getById(userId);
+        List<Long> itemIds = itemRepository.findIdsDeletedWithUser(userId);
+        List<Long> bookedItemIds = bookingRepository.findItemIdsByBookerId(userId);
         repository.deleteById(userId);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId, itemIds, bookedItemIds));
     }
 
     private User buildingUser(User newUser, User oldUser) {
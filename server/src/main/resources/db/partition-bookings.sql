@@ -0,0 +1,76 @@
+-- Converts bookings into a table partitioned by end_date.
+-- Run once, during a maintenance window, before enabling the partitioned layout:
+--   psql -v ON_ERROR_STOP=1 -d ShareIt -f partition-bookings.sql
+-- The whole conversion runs in one transaction and takes an exclusive lock on bookings.
+-- Partitions cover shareit.booking-archive.retention-months back and
+-- shareit.booking-partitions.months-ahead forward (12 and 3 by default);
+-- BookingPartitionManager keeps extending them afterwards.
+
+BEGIN;
+
+SELECT pg_advisory_xact_lock(hashtext('bookings_partitions'));
+
+LOCK TABLE bookings IN ACCESS EXCLUSIVE MODE;
+
+UPDATE item_booking_summary s SET last_booking_end = b.end_date
+FROM bookings b WHERE b.id = s.last_booking_id;
+
+UPDATE item_booking_summary s SET next_booking_end = b.end_date
+FROM bookings b WHERE b.id = s.next_booking_id;
+
+ALTER TABLE item_booking_summary DROP CONSTRAINT fk_summary_last_booking;
+ALTER TABLE item_booking_summary DROP CONSTRAINT fk_summary_next_booking;
+
+ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+ALTER TABLE bookings_unpartitioned DROP CONSTRAINT pk_booking;
+DROP INDEX IF EXISTS ix_bookings_booker_start;
+DROP INDEX IF EXISTS ix_bookings_item_start;
+DROP INDEX IF EXISTS ix_bookings_status_start;
+
+CREATE TABLE bookings (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    start_date TIMESTAMP NOT NULL,
+    end_date TIMESTAMP NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    constraint pk_booking primary key (id, end_date),
+    constraint fk_booking_item foreign key (item_id) references items (id) ON DELETE CASCADE,
+    constraint fk_booking_booker foreign key (booker_id) references users (id) ON DELETE CASCADE
+) PARTITION BY RANGE (end_date);
+
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month', now()) - INTERVAL '12 months';
+    horizon DATE := date_trunc('month', now()) + INTERVAL '3 months';
+    month DATE;
+BEGIN
+    EXECUTE format('CREATE TABLE bookings_history PARTITION OF bookings FOR VALUES FROM (MINVALUE) TO (%L)',
+            first_month);
+    month := first_month;
+    WHILE month < horizon LOOP
+        EXECUTE format('CREATE TABLE bookings_p%s PARTITION OF bookings FOR VALUES FROM (%L) TO (%L)',
+                to_char(month, 'YYYYMM'), month, month + INTERVAL '1 month');
+        month := month + INTERVAL '1 month';
+    END LOOP;
+    EXECUTE format('CREATE TABLE bookings_future PARTITION OF bookings FOR VALUES FROM (%L) TO (MAXVALUE)',
+            horizon);
+END $$;
+
+INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status)
+SELECT id, start_date, end_date, item_id, booker_id, status FROM bookings_unpartitioned;
+
+SELECT setval(pg_get_serial_sequence('bookings', 'id'), (SELECT COALESCE(MAX(id), 0) + 1 FROM bookings), false);
+
+DROP TABLE bookings_unpartitioned;
+
+CREATE INDEX ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX ix_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX ix_bookings_status_start ON bookings (status, start_date);
+
+ALTER TABLE item_booking_summary ADD CONSTRAINT fk_summary_last_booking
+    FOREIGN KEY (last_booking_id, last_booking_end) REFERENCES bookings (id, end_date) ON DELETE SET NULL;
+ALTER TABLE item_booking_summary ADD CONSTRAINT fk_summary_next_booking
+    FOREIGN KEY (next_booking_id, next_booking_end) REFERENCES bookings (id, end_date) ON DELETE SET NULL;
+
+COMMIT;
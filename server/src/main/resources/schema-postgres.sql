@@ -0,0 +1,10 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm ON items USING GIN (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm ON items USING GIN (lower(description) gin_trgm_ops);
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+SELECT setval('item_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM items), false)
+WHERE (SELECT last_value FROM item_seq) < (SELECT COALESCE(MAX(id), 0) + 50 FROM items);
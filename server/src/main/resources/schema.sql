@@ -15,8 +15,12 @@ CREATE TABLE IF NOT EXISTS requests (
     constraint fk_requests_requester foreign key (requester_id) references USERS (id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS ix_requests_created ON requests (created DESC, id DESC);
+
+CREATE SEQUENCE IF NOT EXISTS item_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     name VARCHAR(255) NOT NULL,
     description VARCHAR(512) NOT NULL,
     is_available BOOLEAN NOT NULL,
@@ -39,6 +43,32 @@ CREATE TABLE IF NOT EXISTS bookings (
     constraint fk_booking_booker foreign key (booker_id) references users (id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_status_start ON bookings (status, start_date);
+
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    start_date TIMESTAMP NOT NULL,
+    end_date TIMESTAMP NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    constraint pk_bookings_archive primary key (id),
+    constraint fk_bookings_archive_item foreign key (item_id) references items (id) ON DELETE CASCADE,
+    constraint fk_bookings_archive_booker foreign key (booker_id) references users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_booker_start ON bookings_archive (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_item_start ON bookings_archive (item_id, start_date DESC, id DESC);
+
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     text VARCHAR(1024) NOT NULL,
@@ -48,4 +78,36 @@ CREATE TABLE IF NOT EXISTS comments (
     constraint pk_comments primary key (id),
     constraint fk_comments_author foreign key (author_id) references users (id) ON DELETE CASCADE,
     constraint fk_comments_item foreign key (item_id) references items (id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    last_booking_end TIMESTAMP,
+    last_archived_booking_id BIGINT,
+    next_booking_id BIGINT,
+    next_booking_end TIMESTAMP,
+    refresh_at TIMESTAMP,
+    constraint pk_item_booking_summary primary key (item_id),
+    constraint fk_summary_item foreign key (item_id) references items (id) ON DELETE CASCADE,
+    constraint fk_summary_last_booking foreign key (last_booking_id) references bookings (id) ON DELETE SET NULL,
+    constraint fk_summary_next_booking foreign key (next_booking_id) references bookings (id) ON DELETE SET NULL,
+    constraint fk_summary_last_archived_booking foreign key (last_archived_booking_id)
+        references bookings_archive (id) ON DELETE SET NULL
+);
+
+ALTER TABLE item_booking_summary ADD COLUMN IF NOT EXISTS last_booking_end TIMESTAMP;
+
+ALTER TABLE item_booking_summary ADD COLUMN IF NOT EXISTS next_booking_end TIMESTAMP;
+
+ALTER TABLE item_booking_summary ADD COLUMN IF NOT EXISTS last_archived_booking_id BIGINT
+    REFERENCES bookings_archive (id) ON DELETE SET NULL;
+
+CREATE INDEX IF NOT EXISTS ix_item_booking_summary_refresh_at ON item_booking_summary (refresh_at);
+
+INSERT INTO item_booking_summary (item_id, refresh_at)
+SELECT DISTINCT b.item_id, TIMESTAMP '1970-01-01 00:00:00'
+FROM bookings b
+WHERE NOT EXISTS (SELECT 1 FROM item_booking_summary s WHERE s.item_id = b.item_id);
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.archive.BookingArchiveServiceImpl;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.dto.BookingOutput;
+import ru.practicum.shareit.booking.dto.BookingOutputView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingArchiveServiceTest {
+
+    @InjectMocks
+    private BookingArchiveServiceImpl archiveService;
+
+    @Mock
+    private BookingRepository repository;
+    @Mock
+    private ItemBookingSummaryRepository summaryRepository;
+
+    private BookingOutput booking(LocalDateTime start) {
+        return booking(1, start);
+    }
+
+    private BookingOutputView view(BookingOutput booking) {
+        BookingOutputView view = Mockito.mock(BookingOutputView.class);
+        Mockito.when(view.getId()).thenReturn(booking.getId());
+        Mockito.when(view.getStartDate()).thenReturn(booking.getStart());
+        Mockito.when(view.getItemId()).thenReturn(booking.getItem().getId());
+        Mockito.when(view.getItemOwnerId()).thenReturn(booking.getItem().getOwnerId());
+        Mockito.when(view.getBookerId()).thenReturn(booking.getBooker().getId());
+        return view;
+    }
+
+    private BookingOutput booking(long id, LocalDateTime start) {
+        return new BookingOutput(id, start, start.plusDays(1), BookingStatus.APPROVED, 1, "item", "desc", true, 3,
+                null, 2, "booker", "booker@mail.ru");
+    }
+
+    @Test
+    public void archiveCopiesMovesSummaryReferencesAndDeletesBatchTest() {
+        LocalDateTime cutoff = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Mockito
+                .when(repository.findArchivableIds(cutoff, 100))
+                .thenReturn(List.of(3L, 4L));
+        Mockito
+                .when(repository.deleteByIds(List.of(3L, 4L)))
+                .thenReturn(2);
+
+        Assertions.assertEquals(2, archiveService.archive(cutoff, 100));
+
+        InOrder order = Mockito.inOrder(repository, summaryRepository);
+        order.verify(repository).copyToArchive(List.of(3L, 4L));
+        order.verify(summaryRepository).moveLastBookingsToArchive(List.of(3L, 4L));
+        order.verify(repository).deleteByIds(List.of(3L, 4L));
+    }
+
+    @Test
+    public void archiveWithoutExpiredBookingsDoesNothingTest() {
+        Mockito
+                .when(repository.findArchivableIds(any(), eq(100)))
+                .thenReturn(List.of());
+
+        Assertions.assertEquals(0, archiveService.archive(LocalDateTime.now(), 100));
+
+        Mockito.verifyNoMoreInteractions(repository);
+        Mockito.verifyNoInteractions(summaryRepository);
+    }
+
+    @Test
+    public void reachesArchiveOnlyForShortPagesOrPagesOlderThanHorizonTest() {
+        LocalDateTime recent = LocalDateTime.now().plusDays(1);
+
+        Assertions.assertTrue(archiveService.reachesArchive(List.of(booking(recent)), OffsetPageRequest.of(0, 2)));
+        Assertions.assertFalse(archiveService.reachesArchive(List.of(booking(recent), booking(recent)),
+                OffsetPageRequest.of(0, 2)));
+        Assertions.assertTrue(archiveService.reachesArchive(List.of(booking(recent), booking(recent.minusYears(1))),
+                OffsetPageRequest.of(0, 2)));
+    }
+
+    @Test
+    public void findByBookerReadsOnlyArchiveRowsAfterFullHotPageTest() {
+        LocalDateTime old = LocalDateTime.of(2020, 1, 10, 0, 0);
+        List<BookingOutput> hot = List.of(booking(9, old), booking(8, old.minusDays(5)));
+        KeysetCursor before = new KeysetCursor(old.plusDays(1), 100);
+        BookingOutputView archived = view(booking(5, old.minusDays(2)));
+        Mockito
+                .when(repository.findArchivedByBookerId(eq(2L), any(), eq(List.of("REJECTED")), eq(before.getTimestamp()),
+                        eq(100L),
+                        eq(old.minusDays(5)), eq(8L), eq(OffsetPageRequest.of(0, 2))))
+                .thenReturn(List.of(archived));
+
+        List<BookingOutput> result = archiveService.findByBooker(2, LocalDateTime.now(),
+                List.of(BookingStatus.REJECTED), hot, before, OffsetPageRequest.of(0, 2));
+
+        Assertions.assertEquals(List.of(9L, 5L), result.stream().map(BookingOutput::getId).collect(Collectors.toList()));
+        Mockito.verify(repository, Mockito.never()).findWithArchiveByBookerId(anyLong(), any(), any(), any(), anyLong(),
+                any());
+    }
+
+    @Test
+    public void findByOwnerReadsArchiveWithoutLowerBoundAfterShortHotPageTest() {
+        LocalDateTime old = LocalDateTime.of(2020, 1, 10, 0, 0);
+        List<BookingOutput> hot = List.of(booking(9, old));
+        KeysetCursor before = new KeysetCursor(old.plusDays(1), 100);
+        Mockito
+                .when(repository.findArchivedByOwnerId(eq(3L), any(), any(), any(), anyLong(),
+                        eq(LocalDateTime.of(1, 1, 1, 0, 0)), eq(0L), eq(OffsetPageRequest.of(0, 5))))
+                .thenReturn(List.of());
+
+        Assertions.assertSame(hot, archiveService.findByOwner(3, LocalDateTime.now(),
+                List.of(BookingStatus.APPROVED), hot, before, OffsetPageRequest.of(0, 5)));
+    }
+
+    @Test
+    public void offsetPagesSkipUnionWhenNothingIsArchivedTest() {
+        List<BookingOutput> hot = List.of(booking(LocalDateTime.now()));
+        Mockito
+                .when(repository.existsArchivedByBookerId(2L))
+                .thenReturn(false);
+
+        Assertions.assertSame(hot, archiveService.findByBooker(2, LocalDateTime.now(),
+                List.of(BookingStatus.APPROVED), hot, new KeysetCursor(LocalDateTime.now(), 1), OffsetPageRequest.of(4, 2)));
+        Mockito.verify(repository, Mockito.never()).findWithArchiveByBookerId(anyLong(), any(), any(), any(), anyLong(),
+                any());
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.exception.BookingValidateException;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-stress;LOCK_TIMEOUT=30000")
+public class BookingConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int SLOTS = 200;
+    private static final int ATTEMPTS = 4000;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void concurrentOverlappingBookingsAcceptOnlyOnePerSlotTest() throws Exception {
+        long ownerId = userRepository.save(new User(0, "owner", "stress-owner@mail.ru")).getId();
+        long itemId = itemRepository.save(new Item(0, "Drill", "Cordless drill", true, ownerId, null)).getId();
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(userRepository.save(new User(0, "booker" + i, "stress-booker" + i + "@mail.ru")).getId());
+        }
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            int slot = i % SLOTS;
+            long bookerId = bookerIds.get(i % THREADS);
+            LocalDateTime slotStart = base.plusHours(slot * 2L).plusMinutes(i % 2 == 0 ? 0 : 30);
+            BookingDto dto = BookingDto.builder()
+                    .itemId(itemId)
+                    .start(slotStart)
+                    .end(slotStart.plusMinutes(60))
+                    .build();
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    bookingService.add(dto, bookerId);
+                } catch (BookingValidateException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        List<Booking> bookings = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId() == itemId)
+                .collect(Collectors.toList());
+        Map<Long, Long> perSlot = bookings.stream()
+                .collect(Collectors.groupingBy(
+                        booking -> Duration.between(base, booking.getStart()).toHours() / 2,
+                        Collectors.counting()));
+
+        Assertions.assertEquals(SLOTS, bookings.size());
+        Assertions.assertEquals(SLOTS, perSlot.size());
+        perSlot.values().forEach(count -> Assertions.assertEquals(1, count));
+        Assertions.assertEquals(ATTEMPTS - SLOTS, rejected.get());
+    }
+
+    @Test
+    public void reapprovalsRacingOverlappingRequestsKeepOneActiveBookingPerSlotTest() throws Exception {
+        User owner = userRepository.save(new User(0, "owner", "approve-owner@mail.ru"));
+        Item item = itemRepository.save(new Item(0, "Saw", "Circular saw", true, owner.getId(), null));
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(new User(0, "booker" + i, "approve-booker" + i + "@mail.ru")));
+        }
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Booking> rejectedBookings = new ArrayList<>();
+        for (int slot = 0; slot < SLOTS; slot++) {
+            LocalDateTime slotStart = base.plusHours(slot * 2L);
+            rejectedBookings.add(new Booking(0, slotStart, slotStart.plusMinutes(60), item,
+                    bookers.get(slot % THREADS), BookingStatus.REJECTED));
+        }
+        List<Long> rejectedIds = bookingRepository.saveAll(rejectedBookings).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        int approvalRound = ATTEMPTS / SLOTS / 2;
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            int slot = i % SLOTS;
+            long bookerId = bookers.get(i % THREADS).getId();
+            LocalDateTime slotStart = base.plusHours(slot * 2L).plusMinutes(30);
+            BookingDto dto = BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(slotStart)
+                    .end(slotStart.plusMinutes(60))
+                    .build();
+            boolean approve = i / SLOTS == approvalRound;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    if (approve) {
+                        bookingService.update(rejectedIds.get(slot), true, owner.getId());
+                    } else {
+                        bookingService.add(dto, bookerId);
+                    }
+                } catch (BookingValidateException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Map<Long, Long> activePerSlot = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId() == item.getId())
+                .filter(booking -> booking.getStatus() != BookingStatus.REJECTED)
+                .collect(Collectors.groupingBy(
+                        booking -> Duration.between(base, booking.getStart()).toHours() / 2,
+                        Collectors.counting()));
+
+        Assertions.assertEquals(SLOTS, activePerSlot.size());
+        activePerSlot.values().forEach(count -> Assertions.assertEquals(1, count));
+        Assertions.assertEquals(ATTEMPTS - SLOTS, rejected.get());
+    }
+}
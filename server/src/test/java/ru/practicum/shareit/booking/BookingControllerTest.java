@@ -9,13 +9,17 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.dto.BookingOutput;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.exception.BookingValidateException;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.booking.stream.OwnerBookingStream;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -25,6 +29,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -36,6 +41,10 @@ public class BookingControllerTest {
 
     @MockBean
     BookingService bookingService;
+    @MockBean
+    UserService userService;
+    @MockBean
+    OwnerBookingStream ownerBookingStream;
 
     @Autowired
     private MockMvc mvc;
@@ -52,8 +61,8 @@ public class BookingControllerTest {
             .id(2L)
             .start(LocalDateTime.of(2023, 1, 1, 1, 1))
             .end(LocalDateTime.of(2024, 1, 1, 1, 1))
-            .item(new Item(1L, "name", "desc", true, 1L, null))
-            .booker(new User(1L, "name", "email@mail.ru"))
+            .item(new BookingItemDto(1L, "name", "desc", true, 1L, null))
+            .booker(new BookerDto(1L, "name", "email@mail.ru"))
             .status(BookingStatus.WAITING)
             .build();
 
@@ -71,8 +80,8 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(bookingOutput.getId()), Long.class))
                 .andExpect(jsonPath("$.status", is(String.valueOf(bookingOutput.getStatus()))))
-                .andExpect(jsonPath("$.booker", is(bookingOutput.getBooker()), User.class))
-                .andExpect(jsonPath("$.item", is(bookingOutput.getItem()), Item.class));
+                .andExpect(jsonPath("$.booker", is(bookingOutput.getBooker()), BookerDto.class))
+                .andExpect(jsonPath("$.item", is(bookingOutput.getItem()), BookingItemDto.class));
     }
 
     @Test
@@ -90,8 +99,8 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(bookingOutput.getId()), Long.class))
                 .andExpect(jsonPath("$.status", is(String.valueOf(bookingOutput.getStatus()))))
-                .andExpect(jsonPath("$.booker", is(bookingOutput.getBooker()), User.class))
-                .andExpect(jsonPath("$.item", is(bookingOutput.getItem()), Item.class));
+                .andExpect(jsonPath("$.booker", is(bookingOutput.getBooker()), BookerDto.class))
+                .andExpect(jsonPath("$.item", is(bookingOutput.getItem()), BookingItemDto.class));
     }
 
     @Test
@@ -107,13 +116,13 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(bookingOutput.getId()), Long.class))
                 .andExpect(jsonPath("$.status", is(String.valueOf(bookingOutput.getStatus()))))
-                .andExpect(jsonPath("$.booker", is(bookingOutput.getBooker()), User.class))
-                .andExpect(jsonPath("$.item", is(bookingOutput.getItem()), Item.class));
+                .andExpect(jsonPath("$.booker", is(bookingOutput.getBooker()), BookerDto.class))
+                .andExpect(jsonPath("$.item", is(bookingOutput.getItem()), BookingItemDto.class));
     }
 
     @Test
     void getUserBookings() throws Exception {
-        when(bookingService.getUserBookings(any(), anyLong(), anyInt(), anyInt()))
+        when(bookingService.getUserBookings(any(), anyLong(), anyInt(), anyInt(), any()))
                 .thenReturn(List.of(bookingOutput));
 
         mvc.perform(get("/bookings")
@@ -124,15 +133,17 @@ public class BookingControllerTest {
                         .param("from", String.valueOf(0))
                         .param("size", String.valueOf(1)))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor",
+                        new KeysetCursor(bookingOutput.getStart(), bookingOutput.getId()).encode()))
                 .andExpect(jsonPath("$[0].id", is(bookingOutput.getId()), Long.class))
                 .andExpect(jsonPath("$[0].status", is(String.valueOf(bookingOutput.getStatus()))))
-                .andExpect(jsonPath("$[0].booker", is(bookingOutput.getBooker()), User.class))
-                .andExpect(jsonPath("$[0].item", is(bookingOutput.getItem()), Item.class));
+                .andExpect(jsonPath("$[0].booker", is(bookingOutput.getBooker()), BookerDto.class))
+                .andExpect(jsonPath("$[0].item", is(bookingOutput.getItem()), BookingItemDto.class));
     }
 
     @Test
     void getBookingItems() throws Exception {
-        when(bookingService.getBookingItemsByOwner(any(), anyLong(), anyInt(), anyInt()))
+        when(bookingService.getBookingItemsByOwner(any(), anyLong(), anyInt(), anyInt(), any()))
                 .thenReturn(List.of(bookingOutput));
 
         mvc.perform(get("/bookings/owner")
@@ -145,8 +156,22 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id", is(bookingOutput.getId()), Long.class))
                 .andExpect(jsonPath("$[0].status", is(String.valueOf(bookingOutput.getStatus()))))
-                .andExpect(jsonPath("$[0].booker", is(bookingOutput.getBooker()), User.class))
-                .andExpect(jsonPath("$[0].item", is(bookingOutput.getItem()), Item.class));
+                .andExpect(jsonPath("$[0].booker", is(bookingOutput.getBooker()), BookerDto.class))
+                .andExpect(jsonPath("$[0].item", is(bookingOutput.getItem()), BookingItemDto.class));
+    }
+
+    @Test
+    void getOwnerSummary() throws Exception {
+        when(bookingService.getOwnerSummary(anyLong()))
+                .thenReturn(new BookingSummaryDto(6, 1, 2, 1, 1, 1));
+
+        mvc.perform(get("/bookings/owner/summary")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(6)))
+                .andExpect(jsonPath("$.past", is(2)))
+                .andExpect(jsonPath("$.rejected", is(1)));
     }
 
     @Test
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.dao.BookingItemRef;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.event.BookingsExpiredEvent;
+import ru.practicum.shareit.booking.service.BookingExpirySweeper;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingExpirySweeperTest {
+
+    @Mock
+    private BookingRepository repository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private List<BookingItemRef> expired(long firstId, int count) {
+        return LongStream.range(firstId, firstId + count)
+                .mapToObj(id -> (BookingItemRef) new BookingItemRef() {
+                    @Override
+                    public Long getId() {
+                        return id;
+                    }
+
+                    @Override
+                    public Long getItemId() {
+                        return id % 2;
+                    }
+                })
+                .collect(Collectors.toList());
+    }
+
+    private BookingExpirySweeper sweeper(int maxBatches) {
+        return new BookingExpirySweeper(repository, eventPublisher, 100, maxBatches, registry);
+    }
+
+    @Test
+    public void sweepRunsBatchesUntilShortBatchTest() {
+        Mockito
+                .when(repository.expireWaiting(any(), eq(100)))
+                .thenReturn(expired(0, 100))
+                .thenReturn(expired(100, 100))
+                .thenReturn(expired(200, 7));
+
+        Assertions.assertEquals(207, sweeper(10).sweep());
+
+        Mockito.verify(repository, Mockito.times(3)).expireWaiting(any(), eq(100));
+        ArgumentCaptor<BookingsExpiredEvent> event = ArgumentCaptor.forClass(BookingsExpiredEvent.class);
+        Mockito.verify(eventPublisher).publishEvent(event.capture());
+        Assertions.assertEquals(Set.of(0L, 1L), event.getValue().getItemIds());
+        Assertions.assertEquals(104, event.getValue().getBookingIdsByItemId().get(0L).size());
+        Assertions.assertEquals(103, event.getValue().getBookingIdsByItemId().get(1L).size());
+        Assertions.assertEquals(207, registry.get("shareit.booking.expired").counter().count());
+    }
+
+    @Test
+    public void sweepStopsAtMaxBatchesTest() {
+        Mockito
+                .when(repository.expireWaiting(any(), eq(100)))
+                .thenReturn(expired(0, 100))
+                .thenReturn(expired(100, 100));
+
+        Assertions.assertEquals(200, sweeper(2).sweep());
+
+        Mockito.verify(repository, Mockito.times(2)).expireWaiting(any(), eq(100));
+    }
+
+    @Test
+    public void sweepWithoutExpiredBookingsPublishesNothingTest() {
+        Mockito
+                .when(repository.expireWaiting(any(), eq(100)))
+                .thenReturn(List.of());
+
+        Assertions.assertEquals(0, sweeper(10).sweep());
+
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+}
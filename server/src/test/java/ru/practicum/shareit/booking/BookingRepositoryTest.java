@@ -0,0 +1,295 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.booking.dao.BookingItemRef;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.ItemBookingEnd;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingOutput;
+import ru.practicum.shareit.booking.dto.BookingOutputView;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+public class BookingRepositoryTest {
+
+    @Autowired
+    private BookingRepository repository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private static final LocalDateTime MAX_START = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final List<String> ANY_STATUS = List.of("WAITING", "APPROVED", "REJECTED", "CANCELED");
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    private long ownerId;
+    private long bookerId;
+    private long pastId;
+    private long currentId;
+    private long futureId;
+    private long waitingId;
+    private long rejectedId;
+
+    @BeforeEach
+    public void setUp() {
+        User owner = userRepository.save(new User(0, "owner", "owner@mail.ru"));
+        User booker = userRepository.save(new User(0, "booker", "booker@mail.ru"));
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+        Item item = itemRepository.save(new Item(0, "Drill", "Cordless drill", true, ownerId, null));
+        pastId = save(now.minusDays(5), now.minusDays(4), item, booker, BookingStatus.APPROVED);
+        currentId = save(now.minusDays(1), now.plusDays(1), item, booker, BookingStatus.APPROVED);
+        futureId = save(now.plusDays(2), now.plusDays(3), item, booker, BookingStatus.APPROVED);
+        waitingId = save(now.plusDays(4), now.plusDays(5), item, booker, BookingStatus.WAITING);
+        rejectedId = save(now.plusDays(6), now.plusDays(7), item, booker, BookingStatus.REJECTED);
+    }
+
+    private long save(LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status) {
+        return repository.save(new Booking(0, start, end, item, booker, status)).getId();
+    }
+
+    private List<Long> ids(List<BookingOutput> bookings) {
+        return bookings.stream()
+                .map(BookingOutput::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void bookingOutputsCarryFullItemAndBookerTest() {
+        BookingOutput booking = repository.findAllByBookerId(bookerId, MAX_START, Long.MAX_VALUE,
+                OffsetPageRequest.of(0, 1)).get(0);
+
+        Assertions.assertEquals(new BookingItemDto(booking.getItem().getId(), "Drill", "Cordless drill", true,
+                ownerId, null), booking.getItem());
+        Assertions.assertEquals(new BookerDto(bookerId, "booker", "booker@mail.ru"), booking.getBooker());
+    }
+
+    @Test
+    public void bookerQueriesFilterByStateTest() {
+        OffsetPageRequest page = OffsetPageRequest.of(0, null);
+
+        Assertions.assertEquals(List.of(rejectedId, waitingId, futureId, currentId, pastId),
+                ids(repository.findAllByBookerId(bookerId, MAX_START, Long.MAX_VALUE, page)));
+        Assertions.assertEquals(List.of(currentId), ids(repository.findCurrentByBookerId(bookerId, now, MAX_START, Long.MAX_VALUE, page)));
+        Assertions.assertEquals(List.of(pastId), ids(repository.findPastByBookerId(bookerId, now, MAX_START, Long.MAX_VALUE, page)));
+        Assertions.assertEquals(List.of(waitingId, futureId),
+                ids(repository.findFutureByBookerId(bookerId, now, BookingStatus.REJECTED, MAX_START, Long.MAX_VALUE, page)));
+        Assertions.assertEquals(List.of(waitingId),
+                ids(repository.findAllByBookerIdAndStatus(bookerId, BookingStatus.WAITING, MAX_START, Long.MAX_VALUE, page)));
+    }
+
+    @Test
+    public void ownerQueriesFilterByStateTest() {
+        OffsetPageRequest page = OffsetPageRequest.of(0, null);
+
+        Assertions.assertEquals(List.of(currentId), ids(repository.findCurrentByOwnerId(ownerId, now, MAX_START, Long.MAX_VALUE, page)));
+        Assertions.assertEquals(List.of(pastId), ids(repository.findPastByOwnerId(ownerId, now, MAX_START, Long.MAX_VALUE, page)));
+        Assertions.assertEquals(List.of(waitingId, futureId),
+                ids(repository.findFutureByOwnerId(ownerId, now, BookingStatus.REJECTED, MAX_START, Long.MAX_VALUE, page)));
+        Assertions.assertEquals(List.of(rejectedId),
+                ids(repository.findAllByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, MAX_START, Long.MAX_VALUE, page)));
+        Assertions.assertTrue(repository.findAllByOwnerId(bookerId, MAX_START, Long.MAX_VALUE, page).isEmpty());
+    }
+
+    @Test
+    public void queriesPageInDatabaseTest() {
+        Assertions.assertEquals(List.of(futureId, currentId),
+                ids(repository.findAllByOwnerId(ownerId, MAX_START, Long.MAX_VALUE, OffsetPageRequest.of(2, 2))));
+        Assertions.assertEquals(List.of(pastId),
+                ids(repository.findAllByBookerId(bookerId, MAX_START, Long.MAX_VALUE, OffsetPageRequest.of(4, 2))));
+    }
+
+    @Test
+    public void queriesSeekPastCursorTest() {
+        BookingOutput last = repository.findAllByOwnerId(ownerId, MAX_START, Long.MAX_VALUE, OffsetPageRequest.of(0, 2)).get(1);
+
+        Assertions.assertEquals(List.of(futureId, currentId),
+                ids(repository.findAllByOwnerId(ownerId, last.getStart(), last.getId(), OffsetPageRequest.of(0, 2))));
+        Assertions.assertEquals(List.of(futureId),
+                ids(repository.findFutureByBookerId(bookerId, now, BookingStatus.REJECTED, last.getStart(), last.getId(),
+                        OffsetPageRequest.of(0, 2))));
+    }
+
+    @Test
+    public void summariesCountEveryStateInOneQueryTest() {
+        BookingSummaryDto expected = new BookingSummaryDto(5, 1, 1, 2, 1, 1);
+
+        Assertions.assertEquals(expected,
+                repository.summarizeByBookerId(bookerId, now, BookingStatus.WAITING, BookingStatus.REJECTED));
+        Assertions.assertEquals(expected,
+                repository.summarizeByOwnerId(ownerId, now, BookingStatus.WAITING, BookingStatus.REJECTED));
+        Assertions.assertEquals(new BookingSummaryDto(),
+                repository.summarizeByOwnerId(bookerId, now, BookingStatus.WAITING, BookingStatus.REJECTED));
+    }
+
+    @Test
+    public void updateStatusChangesOnlyListedBookingsTest() {
+        int updated = repository.updateStatus(List.of(waitingId, rejectedId), BookingStatus.APPROVED);
+
+        Assertions.assertEquals(2, updated);
+        Assertions.assertEquals(BookingStatus.APPROVED, repository.findById(waitingId).orElseThrow().getStatus());
+        Assertions.assertEquals(BookingStatus.APPROVED, repository.findById(rejectedId).orElseThrow().getStatus());
+        Assertions.assertEquals(3, repository.findAllWithItemByIdIn(List.of(pastId, currentId, futureId)).size());
+    }
+
+    @Test
+    public void nearestEndsAndBookedItemsAreReadPerItemTest() {
+        long itemId = repository.findById(pastId).orElseThrow().getItem().getId();
+        List<ItemBookingEnd> ends = repository.findNearestEndsAfter(List.of(itemId), now, BookingStatus.REJECTED);
+
+        Assertions.assertEquals(1, ends.size());
+        Assertions.assertEquals(itemId, ends.get(0).getItemId());
+        Assertions.assertEquals(now.plusDays(1), ends.get(0).getNearestEnd());
+        Assertions.assertEquals(List.of(itemId), repository.findItemIdsByBookerId(bookerId));
+        Assertions.assertTrue(repository.findItemIdsByBookerId(ownerId).isEmpty());
+    }
+
+    @Test
+    public void expireWaitingRejectsOnlyStartedWaitingBookingsInBatchesTest() {
+        Item item = itemRepository.save(new Item(0, "Saw", "Circular saw", true, ownerId, null));
+        User booker = userRepository.findById(bookerId).orElseThrow();
+        long firstStaleId = save(now.minusDays(3), now.plusDays(1), item, booker, BookingStatus.WAITING);
+        long secondStaleId = save(now.minusHours(1), now.plusDays(1), item, booker, BookingStatus.WAITING);
+
+        List<BookingItemRef> expired = repository.expireWaiting(now, 1);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertEquals(firstStaleId, expired.get(0).getId());
+        Assertions.assertEquals(item.getId(), expired.get(0).getItemId());
+        Assertions.assertEquals(BookingStatus.REJECTED, repository.findById(firstStaleId).orElseThrow().getStatus());
+        Assertions.assertEquals(BookingStatus.WAITING, repository.findById(secondStaleId).orElseThrow().getStatus());
+
+        Assertions.assertEquals(List.of(secondStaleId), repository.expireWaiting(now, 10).stream()
+                .map(BookingItemRef::getId)
+                .collect(Collectors.toList()));
+        Assertions.assertTrue(repository.expireWaiting(now, 10).isEmpty());
+        Assertions.assertEquals(BookingStatus.REJECTED, repository.findById(secondStaleId).orElseThrow().getStatus());
+        Assertions.assertEquals(BookingStatus.WAITING, repository.findById(waitingId).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void archivedBookingsAreReadTogetherWithHotOnesTest() {
+        List<Long> archivable = repository.findArchivableIds(now.minusDays(2), 10);
+        Assertions.assertEquals(List.of(pastId), archivable);
+
+        Assertions.assertEquals(1, repository.copyToArchive(archivable));
+        Assertions.assertEquals(1, repository.deleteByIds(archivable));
+
+        Assertions.assertTrue(repository.findById(pastId).isEmpty());
+        Assertions.assertEquals(List.of(currentId),
+                ids(repository.findAllByBookerId(bookerId, MAX_START, Long.MAX_VALUE, OffsetPageRequest.of(3, 10))));
+        List<BookingOutputView> all = repository.findWithArchiveByBookerId(bookerId, MAX_START, ANY_STATUS,
+                MAX_START, Long.MAX_VALUE, OffsetPageRequest.of(3, 10));
+        Assertions.assertEquals(List.of(currentId, pastId),
+                all.stream().map(BookingOutputView::getId).collect(Collectors.toList()));
+        BookingOutputView archived = all.get(1);
+        Assertions.assertEquals(now.minusDays(5), archived.getStartDate());
+        Assertions.assertEquals(BookingStatus.APPROVED, archived.getStatus());
+        Assertions.assertEquals("Drill", archived.getItemName());
+        Assertions.assertEquals("booker", archived.getBookerName());
+        Assertions.assertEquals("booker@mail.ru", archived.getBookerEmail());
+        Assertions.assertEquals("Cordless drill", archived.getItemDescription());
+        Assertions.assertTrue(archived.getItemAvailable());
+        Assertions.assertEquals(ownerId, archived.getItemOwnerId());
+        Assertions.assertNull(archived.getItemRequestId());
+        Assertions.assertEquals(List.of(pastId), repository.findWithArchiveByOwnerId(ownerId, now, ANY_STATUS, now,
+                        currentId, OffsetPageRequest.of(0, 10)).stream()
+                .map(BookingOutputView::getId)
+                .collect(Collectors.toList()));
+
+        LocalDateTime floor = LocalDateTime.of(1, 1, 1, 0, 0);
+        Assertions.assertEquals(List.of(pastId), repository.findArchivedByBookerId(bookerId, MAX_START, ANY_STATUS,
+                        MAX_START, Long.MAX_VALUE, floor, 0, OffsetPageRequest.of(0, 10)).stream()
+                .map(BookingOutputView::getId)
+                .collect(Collectors.toList()));
+        Assertions.assertTrue(repository.findArchivedByOwnerId(ownerId, MAX_START, ANY_STATUS, MAX_START,
+                Long.MAX_VALUE, now.minusDays(5), pastId, OffsetPageRequest.of(0, 10)).isEmpty());
+        Assertions.assertTrue(repository.findArchivedByBookerId(bookerId, MAX_START, List.of("REJECTED"), MAX_START,
+                Long.MAX_VALUE, floor, 0, OffsetPageRequest.of(0, 10)).isEmpty());
+        Assertions.assertEquals(new BookingSummaryDto(1, 0, 1, 0, 0, 0),
+                repository.summarizeArchivedByBookerId(bookerId, BookingStatus.WAITING, BookingStatus.REJECTED));
+        Assertions.assertEquals(new BookingSummaryDto(1, 0, 1, 0, 0, 0),
+                repository.summarizeArchivedByOwnerId(ownerId, BookingStatus.WAITING, BookingStatus.REJECTED));
+        Assertions.assertEquals(new BookingSummaryDto(),
+                repository.summarizeArchivedByOwnerId(bookerId, BookingStatus.WAITING, BookingStatus.REJECTED));
+        Assertions.assertTrue(repository.existsArchivedByBookerId(bookerId));
+        Assertions.assertTrue(repository.existsArchivedByOwnerId(ownerId));
+        Assertions.assertFalse(repository.existsArchivedByBookerId(ownerId));
+    }
+
+    @Test
+    public void finishedBookingIsFoundAfterArchivingTest() {
+        long itemId = repository.findById(pastId).orElseThrow().getItem().getId();
+        Assertions.assertTrue(repository.existsFinishedByBookerIdAndItemId(bookerId, itemId, now));
+        Assertions.assertFalse(repository.existsFinishedByBookerIdAndItemId(ownerId, itemId, now));
+
+        List<Long> archivable = repository.findArchivableIds(now.minusDays(2), 10);
+        repository.copyToArchive(archivable);
+        repository.deleteByIds(archivable);
+
+        Assertions.assertTrue(repository.existsFinishedByBookerIdAndItemId(bookerId, itemId, now));
+        Assertions.assertFalse(repository.existsFinishedByBookerIdAndItemId(bookerId, itemId, now.minusDays(6)));
+    }
+
+    @Test
+    public void findAllByIdInAndOwnerIdInKeepsOnlyRequestedOwnersTest() {
+        List<Long> bookingIds = List.of(pastId, waitingId);
+
+        Assertions.assertEquals(bookingIds, ids(repository.findAllByIdInAndOwnerIdIn(bookingIds, List.of(ownerId))));
+        Assertions.assertTrue(repository.findAllByIdInAndOwnerIdIn(bookingIds, List.of(bookerId)).isEmpty());
+    }
+
+    @Test
+    public void lastArchivedBookingIsFoundPerItemTest() {
+        long itemId = repository.findById(pastId).orElseThrow().getItem().getId();
+        List<Long> archivable = repository.findArchivableIds(now.minusDays(2), 10);
+        repository.copyToArchive(archivable);
+        repository.deleteByIds(archivable);
+
+        Assertions.assertEquals(List.of(pastId), repository.findLastArchivedByItemIds(List.of(itemId), now,
+                        BookingStatus.REJECTED).stream()
+                .map(ArchivedBooking::getId)
+                .collect(Collectors.toList()));
+        Assertions.assertTrue(repository.findLastArchivedByItemIds(List.of(itemId), now.minusDays(6),
+                BookingStatus.REJECTED).isEmpty());
+    }
+
+    @Test
+    public void archivingMovesSummaryLastBookingToArchiveTest() {
+        Booking past = repository.findById(pastId).orElseThrow();
+        long itemId = past.getItem().getId();
+        summaryRepository.saveAndFlush(new ItemBookingSummary(itemId, past, null, null));
+        List<Long> archivable = repository.findArchivableIds(now.minusDays(2), 10);
+
+        repository.copyToArchive(archivable);
+        Assertions.assertEquals(1, summaryRepository.moveLastBookingsToArchive(archivable));
+        repository.deleteByIds(archivable);
+
+        ItemBookingSummary summary = summaryRepository.findAllByItemIdIn(List.of(itemId)).get(0);
+        Assertions.assertNull(summary.getLastBooking());
+        Assertions.assertNull(summary.getLastBookingEnd());
+        Assertions.assertEquals(pastId, summary.getLastArchivedBooking().getId());
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingOutput;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Transactional
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BookingServiceStatementCountTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void bookingListsLoadEachPageWithOneQueryTest() {
+        User owner = userRepository.save(new User(0, "owner", "projection-owner@mail.ru"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 10; i++) {
+            User booker = userRepository.save(new User(0, "booker" + i, "projection-booker" + i + "@mail.ru"));
+            Item item = itemRepository.save(new Item(0, "item" + i, "desc" + i, true, owner.getId(), null));
+            bookingRepository.save(new Booking(0, now.plusDays(i + 1), now.plusDays(i + 2), item, booker,
+                    BookingStatus.WAITING));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        List<BookingOutput> result = bookingService.getBookingItemsByOwner(BookingState.WAITING, owner.getId(), 0, 10,
+                null);
+
+        Assertions.assertEquals(10, result.size());
+        Assertions.assertEquals("item9", result.get(0).getItem().getName());
+        Assertions.assertEquals("booker9", result.get(0).getBooker().getName());
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(1, statistics.getEntityLoadCount());
+    }
+}
@@ -3,31 +3,47 @@ package ru.practicum.shareit.booking;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.archive.BookingArchiveService;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchStatus;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingOutput;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.BookingValidateException;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 
 @ExtendWith(MockitoExtension.class)
 public class BookingServiceTest {
@@ -41,6 +57,12 @@ public class BookingServiceTest {
     private ItemService itemService;
     @Mock
     private UserService userService;
+    @Mock
+    private ItemBookingSummaryService summaryService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private BookingArchiveService archiveService;
 
     private Booking getBooking() {
         return new Booking(
@@ -106,10 +128,10 @@ public class BookingServiceTest {
     @Test
     public void getUserBookingsTest() {
         Mockito
-                .when(repository.findAllByBookerIdOrderByStartDesc(anyLong()))
-                .thenReturn(List.of(getBooking()));
+                .when(repository.findPastByBookerId(anyLong(), any(), any(), anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingOutput(getBooking())));
 
-        List<BookingOutput> result = bookingService.getUserBookings(BookingState.PAST, 1, 0, 1);
+        List<BookingOutput> result = bookingService.getUserBookings(BookingState.PAST, 1, 0, 1, null);
 
         Assertions.assertEquals(1, result.get(0).getId());
         Assertions.assertEquals(LocalDateTime.of(2020, 1, 1, 12, 12), result.get(0).getStart());
@@ -121,10 +143,10 @@ public class BookingServiceTest {
     @Test
     public void getBookingItemsByOwnerStatePastTest() {
         Mockito
-                .when(repository.findAllByItem_OwnerIdOrderByStartDesc(anyLong()))
-                .thenReturn(List.of(getBooking()));
+                .when(repository.findPastByOwnerId(anyLong(), any(), any(), anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingOutput(getBooking())));
 
-        List<BookingOutput> result = bookingService.getBookingItemsByOwner(BookingState.PAST, 1, 0, 1);
+        List<BookingOutput> result = bookingService.getBookingItemsByOwner(BookingState.PAST, 1, 0, 1, null);
 
         Assertions.assertEquals(1, result.get(0).getId());
         Assertions.assertEquals(LocalDateTime.of(2020, 1, 1, 12, 12), result.get(0).getStart());
@@ -139,7 +161,7 @@ public class BookingServiceTest {
                 .when(userService.getById(anyLong()))
                 .thenReturn(UserDto.builder().build());
         Mockito
-                .when(itemService.getItemById(anyLong()))
+                .when(itemService.getItemByIdForUpdate(anyLong()))
                 .thenReturn(new Item(1L, "name", "desc", true, 1L, null));
         Mockito
                 .when(repository.save(Mockito.any()))
@@ -160,7 +182,7 @@ public class BookingServiceTest {
                 .when(userService.getById(anyLong()))
                 .thenReturn(UserDto.builder().build());
         Mockito
-                .when(itemService.getItemById(anyLong()))
+                .when(itemService.getItemByIdForUpdate(anyLong()))
                 .thenReturn(new Item(1L, "name", "desc", false, 1L, null));
 
         final BookingNotFoundException exception = Assertions.assertThrows(
@@ -176,7 +198,7 @@ public class BookingServiceTest {
                 .when(userService.getById(anyLong()))
                 .thenReturn(UserDto.builder().build());
         Mockito
-                .when(itemService.getItemById(anyLong()))
+                .when(itemService.getItemByIdForUpdate(anyLong()))
                 .thenReturn(new Item(1L, "name", "desc", false, 1L, null));
 
         final BookingValidateException exception = Assertions.assertThrows(
@@ -186,13 +208,33 @@ public class BookingServiceTest {
         Assertions.assertEquals("Item with ID=1 is not available", exception.getMessage());
     }
 
+    @Test
+    public void addOverlappingTest() {
+        Mockito
+                .when(userService.getById(anyLong()))
+                .thenReturn(UserDto.builder().build());
+        Mockito
+                .when(itemService.getItemByIdForUpdate(anyLong()))
+                .thenReturn(new Item(1L, "name", "desc", true, 1L, null));
+        Mockito
+                .when(repository.existsOverlapping(eq(1L), any(), any(), any()))
+                .thenReturn(true);
+
+        final BookingValidateException exception = Assertions.assertThrows(
+                BookingValidateException.class,
+                () -> bookingService.add(getBookingDto(), 2L));
+
+        Assertions.assertEquals("Item with ID=1 is already booked for this period", exception.getMessage());
+        Mockito.verify(repository, Mockito.never()).save(any());
+    }
+
     @Test
     public void updateApprovedTest() {
         Mockito
                 .when(repository.findById(anyLong()))
                 .thenReturn(Optional.of(getWaitingBooking()));
         Mockito
-                .when(itemService.getItemById(anyLong()))
+                .when(itemService.getItemByIdForUpdate(anyLong()))
                 .thenReturn(new Item(1L, "name", "desc", true, 1L, null));
         Mockito
                 .when(repository.save(Mockito.any()))
@@ -213,7 +255,7 @@ public class BookingServiceTest {
                 .when(repository.findById(anyLong()))
                 .thenReturn(Optional.of(getWaitingBooking()));
         Mockito
-                .when(itemService.getItemById(anyLong()))
+                .when(itemService.getItemByIdForUpdate(anyLong()))
                 .thenReturn(new Item(1L, "name", "desc", false, 1L, null));
         Mockito
                 .when(repository.save(Mockito.any()))
@@ -237,10 +279,10 @@ public class BookingServiceTest {
     @Test
     public void getBookingItemsByOwnerStateWaitingTest() {
         Mockito
-                .when(repository.findAllByItem_OwnerIdOrderByStartDesc(anyLong()))
-                .thenReturn(List.of(getWaitingBooking()));
+                .when(repository.findAllByOwnerIdAndStatus(anyLong(), eq(BookingStatus.WAITING), any(), anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingOutput(getWaitingBooking())));
 
-        List<BookingOutput> result = bookingService.getBookingItemsByOwner(BookingState.WAITING, 1, 0, 1);
+        List<BookingOutput> result = bookingService.getBookingItemsByOwner(BookingState.WAITING, 1, 0, 1, null);
 
         Assertions.assertEquals(1, result.get(0).getId());
         Assertions.assertEquals(LocalDateTime.of(2020, 1, 1, 12, 12), result.get(0).getStart());
@@ -252,16 +294,16 @@ public class BookingServiceTest {
     @Test
     public void getBookingItemsByOwnerStateRejectedTest() {
         Mockito
-                .when(repository.findAllByItem_OwnerIdOrderByStartDesc(anyLong()))
-                .thenReturn(List.of(new Booking(
+                .when(repository.findAllByOwnerIdAndStatus(anyLong(), eq(BookingStatus.REJECTED), any(), anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingOutput(new Booking(
                         1,
                         LocalDateTime.of(2020, 1, 1, 12, 12),
                         LocalDateTime.of(2021, 3, 3, 3, 3),
                         new Item(),
                         new User(1, "name", "email@mail.ru"),
-                        BookingStatus.REJECTED)));
+                        BookingStatus.REJECTED))));
 
-        List<BookingOutput> result = bookingService.getBookingItemsByOwner(BookingState.REJECTED, 1, 0, 1);
+        List<BookingOutput> result = bookingService.getBookingItemsByOwner(BookingState.REJECTED, 1, 0, 1, null);
 
         Assertions.assertEquals(1, result.get(0).getId());
         Assertions.assertEquals(LocalDateTime.of(2020, 1, 1, 12, 12), result.get(0).getStart());
@@ -273,16 +315,16 @@ public class BookingServiceTest {
     @Test
     public void getBookingItemsByOwnerStateCurrentTest() {
         Mockito
-                .when(repository.findAllByItem_OwnerIdOrderByStartDesc(anyLong()))
-                .thenReturn(List.of(new Booking(
+                .when(repository.findCurrentByOwnerId(anyLong(), any(), any(), anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingOutput(new Booking(
                         1,
                         LocalDateTime.of(2021, 1, 1, 12, 12),
                         LocalDateTime.of(2023, 3, 3, 3, 3),
                         new Item(),
                         new User(1, "name", "email@mail.ru"),
-                        BookingStatus.APPROVED)));
+                        BookingStatus.APPROVED))));
 
-        List<BookingOutput> result = bookingService.getBookingItemsByOwner(BookingState.CURRENT, 1, 0, 1);
+        List<BookingOutput> result = bookingService.getBookingItemsByOwner(BookingState.CURRENT, 1, 0, 1, null);
 
         Assertions.assertEquals(1, result.get(0).getId());
         Assertions.assertEquals(LocalDateTime.of(2021, 1, 1, 12, 12), result.get(0).getStart());
@@ -294,16 +336,16 @@ public class BookingServiceTest {
     @Test
     public void getBookingItemsByOwnerStateFutureTest() {
         Mockito
-                .when(repository.findAllByItem_OwnerIdOrderByStartDesc(anyLong()))
-                .thenReturn(List.of(new Booking(
+                .when(repository.findFutureByOwnerId(anyLong(), any(), any(), any(), anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingOutput(new Booking(
                         1,
                         LocalDateTime.of(2023, 1, 1, 12, 12),
                         LocalDateTime.of(2024, 3, 3, 3, 3),
                         new Item(),
                         new User(1, "name", "email@mail.ru"),
-                        BookingStatus.APPROVED)));
+                        BookingStatus.APPROVED))));
 
-        List<BookingOutput> result = bookingService.getBookingItemsByOwner(BookingState.FUTURE, 1, 0, 1);
+        List<BookingOutput> result = bookingService.getBookingItemsByOwner(BookingState.FUTURE, 1, 0, 1, null);
 
         Assertions.assertEquals(1, result.get(0).getId());
         Assertions.assertEquals(LocalDateTime.of(2023, 1, 1, 12, 12), result.get(0).getStart());
@@ -315,10 +357,10 @@ public class BookingServiceTest {
     @Test
     public void getBookingItemsByOwnerStateAllTest() {
         Mockito
-                .when(repository.findAllByItem_OwnerIdOrderByStartDesc(anyLong()))
-                .thenReturn(List.of(getBooking()));
+                .when(repository.findAllByOwnerId(anyLong(), any(), anyLong(), any()))
+                .thenReturn(List.of(BookingMapper.mapToBookingOutput(getBooking())));
 
-        List<BookingOutput> result = bookingService.getBookingItemsByOwner(BookingState.ALL, 1, 0, 1);
+        List<BookingOutput> result = bookingService.getBookingItemsByOwner(BookingState.ALL, 1, 0, 1, null);
 
         Assertions.assertEquals(1, result.get(0).getId());
         Assertions.assertEquals(LocalDateTime.of(2020, 1, 1, 12, 12), result.get(0).getStart());
@@ -327,26 +369,120 @@ public class BookingServiceTest {
         Assertions.assertEquals(BookingStatus.APPROVED, result.get(0).getStatus());
     }
 
+    @Test
+    public void getUserBookingsPastReadsArchiveBeyondHotDataTest() {
+        BookingOutput hot = BookingMapper.mapToBookingOutput(getBooking());
+        BookingOutput archived = new BookingOutput(7, LocalDateTime.of(2019, 1, 1, 0, 0),
+                LocalDateTime.of(2019, 1, 2, 0, 0), BookingStatus.APPROVED, 1, "name", "desc", true, 1, null,
+                1, "name", "email@mail.ru");
+        Mockito
+                .when(repository.findPastByBookerId(anyLong(), any(), any(), anyLong(), eq(OffsetPageRequest.of(0, 2))))
+                .thenReturn(List.of(hot));
+        Mockito
+                .when(archiveService.reachesArchive(List.of(hot), OffsetPageRequest.of(0, 2)))
+                .thenReturn(true);
+        Mockito
+                .when(archiveService.findByBooker(eq(1L), any(), anyCollection(), eq(List.of(hot)), any(),
+                        eq(OffsetPageRequest.of(0, 2))))
+                .thenReturn(List.of(hot, archived));
+
+        List<BookingOutput> result = bookingService.getUserBookings(BookingState.PAST, 1, 0, 2, null);
+
+        Assertions.assertEquals(List.of(hot, archived), result);
+    }
+
+    @Test
+    public void getUserBookingsRejectedReadsArchiveBeyondHotDataTest() {
+        BookingOutput archived = new BookingOutput(7, LocalDateTime.of(2019, 1, 1, 0, 0),
+                LocalDateTime.of(2019, 1, 2, 0, 0), BookingStatus.REJECTED, 1, "name", "desc", true, 1, null,
+                1, "name", "email@mail.ru");
+        Mockito
+                .when(repository.findAllByBookerIdAndStatus(anyLong(), eq(BookingStatus.REJECTED), any(), anyLong(),
+                        eq(OffsetPageRequest.of(0, 2))))
+                .thenReturn(List.of());
+        Mockito
+                .when(archiveService.reachesArchive(List.of(), OffsetPageRequest.of(0, 2)))
+                .thenReturn(true);
+        Mockito
+                .when(archiveService.findByBooker(eq(1L), any(), eq(Set.of(BookingStatus.REJECTED)), eq(List.of()),
+                        any(), eq(OffsetPageRequest.of(0, 2))))
+                .thenReturn(List.of(archived));
+
+        List<BookingOutput> result = bookingService.getUserBookings(BookingState.REJECTED, 1, 0, 2, null);
+
+        Assertions.assertEquals(List.of(archived), result);
+    }
+
+    @Test
+    public void getUserSummaryTest() {
+        Mockito
+                .when(repository.summarizeByBookerId(eq(1L), any(), eq(BookingStatus.WAITING),
+                        eq(BookingStatus.REJECTED)))
+                .thenReturn(new BookingSummaryDto(3, 1, 1, 1, 0, 0));
+        Mockito
+                .when(repository.summarizeArchivedByBookerId(1L, BookingStatus.WAITING, BookingStatus.REJECTED))
+                .thenReturn(new BookingSummaryDto(4, 0, 4, 0, 0, 2));
+
+        Assertions.assertEquals(new BookingSummaryDto(7, 1, 5, 1, 0, 2), bookingService.getUserSummary(1));
+    }
+
+    @Test
+    public void getOwnerSummaryUnknownUserTest() {
+        Mockito
+                .when(userService.getById(anyLong()))
+                .thenThrow(new UserNotFoundException("User with ID=1 not found"));
+
+        Assertions.assertThrows(UserNotFoundException.class, () -> bookingService.getOwnerSummary(1));
+        Mockito.verifyNoInteractions(repository);
+    }
+
     @Test
     public void getUserBookingsFromMoreListSize() {
         Mockito
-                .when(repository.findAllByBookerIdOrderByStartDesc(anyLong()))
-                .thenReturn(List.of(getBooking()));
+                .when(repository.findAllByBookerId(anyLong(), any(), anyLong(), any()))
+                .thenReturn(List.of());
 
         final IllegalArgumentException exception = Assertions.assertThrows(
                 IllegalArgumentException.class,
-                () -> bookingService.getUserBookings(BookingState.ALL, 1, 2, 1));
+                () -> bookingService.getUserBookings(BookingState.ALL, 1, 2, 1, null));
 
         Assertions.assertEquals("Parameter from must be lower size list", exception.getMessage());
     }
 
+    @Test
+    public void getUserBookingsFromEqualsListSize() {
+        Mockito
+                .when(repository.findAllByBookerId(anyLong(), any(), anyLong(), eq(OffsetPageRequest.of(1, 1))))
+                .thenReturn(List.of());
+        Mockito
+                .when(repository.findAllByBookerId(anyLong(), any(), anyLong(), eq(OffsetPageRequest.of(0, 1))))
+                .thenReturn(List.of(BookingMapper.mapToBookingOutput(getBooking())));
+
+        List<BookingOutput> result = bookingService.getUserBookings(BookingState.ALL, 1, 1, 1, null);
+
+        Assertions.assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void getBookingItemsByOwnerWithCursorTest() {
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 12, 0);
+        Mockito
+                .when(repository.findAllByOwnerId(anyLong(), eq(start), eq(5L), eq(OffsetPageRequest.of(0, 1))))
+                .thenReturn(List.of(BookingMapper.mapToBookingOutput(getBooking())));
+
+        List<BookingOutput> result = bookingService.getBookingItemsByOwner(BookingState.ALL, 1, 0, 1,
+                new KeysetCursor(start, 5).encode());
+
+        Assertions.assertEquals(1, result.get(0).getId());
+    }
+
     @Test
     public void updateUserNotAccess() {
         Mockito
                 .when(repository.findById(anyLong()))
                 .thenReturn(Optional.of(getWaitingBooking()));
         Mockito
-                .when(itemService.getItemById(anyLong()))
+                .when(itemService.getItemByIdForUpdate(anyLong()))
                 .thenReturn(new Item(1L, "name", "desc", true, 1L, null));
 
         final UserNotFoundException exception = Assertions.assertThrows(
@@ -355,4 +491,105 @@ public class BookingServiceTest {
 
         Assertions.assertEquals("User with ID=2 does not have access", exception.getMessage());
     }
+
+    @Test
+    public void updateApprovedOverlappingActiveBookingTest() {
+        Mockito
+                .when(repository.findById(anyLong()))
+                .thenReturn(Optional.of(getWaitingBooking()));
+        Mockito
+                .when(itemService.getItemByIdForUpdate(anyLong()))
+                .thenReturn(new Item(1L, "name", "desc", true, 1L, null));
+        Mockito
+                .when(repository.existsOverlappingExcept(anyLong(), any(), any(), any(), eq(List.of(1L))))
+                .thenReturn(true);
+
+        final BookingValidateException exception = Assertions.assertThrows(
+                BookingValidateException.class,
+                () -> bookingService.update(1L, true, 1L));
+
+        Assertions.assertEquals("Item with ID=0 is already booked for this period", exception.getMessage());
+        Mockito.verify(repository, Mockito.never()).save(any());
+        Mockito.verify(itemService, Mockito.never()).getItemById(anyLong());
+    }
+
+    private Booking getBooking(long id, long ownerId, BookingStatus status) {
+        return new Booking(id, LocalDateTime.of(2030, 1, 1, 12, 0), LocalDateTime.of(2030, 1, 2, 12, 0),
+                new Item(10 + id, "name", "desc", true, ownerId, null), new User(5, "name", "email@mail.ru"), status);
+    }
+
+    @Test
+    public void updateAllAppliesDecisionsWithSetBasedUpdatesTest() {
+        Mockito
+                .when(userService.getById(anyLong()))
+                .thenReturn(UserDto.builder().build());
+        Mockito
+                .when(repository.findAllWithItemByIdIn(any()))
+                .thenReturn(List.of(
+                        getBooking(1, 1, BookingStatus.WAITING),
+                        getBooking(2, 1, BookingStatus.WAITING),
+                        getBooking(3, 1, BookingStatus.APPROVED),
+                        getBooking(4, 2, BookingStatus.WAITING),
+                        getBooking(5, 1, BookingStatus.WAITING)));
+
+        List<BookingBatchResultDto> result = bookingService.updateAll(1, List.of(
+                new BookingDecisionDto(1, true),
+                new BookingDecisionDto(2, false),
+                new BookingDecisionDto(3, true),
+                new BookingDecisionDto(4, true),
+                new BookingDecisionDto(6, false),
+                new BookingDecisionDto(5, true),
+                new BookingDecisionDto(5, false)));
+
+        Assertions.assertEquals(List.of(0, 1, 2, 3, 4, 5, 6),
+                result.stream().map(BookingBatchResultDto::getIndex).collect(Collectors.toList()));
+        Assertions.assertEquals(BookingStatus.APPROVED, result.get(0).getBooking().getStatus());
+        Assertions.assertEquals(BookingStatus.REJECTED, result.get(1).getBooking().getStatus());
+        Assertions.assertEquals("This booking already have status APPROVED", result.get(2).getError());
+        Assertions.assertEquals("User with ID=1 does not have access", result.get(3).getError());
+        Assertions.assertEquals("Booking with ID=6 not found", result.get(4).getError());
+        Assertions.assertEquals(BookingBatchStatus.UPDATED, result.get(5).getStatus());
+        Assertions.assertEquals("Booking with ID=5 is listed more than once", result.get(6).getError());
+        Mockito.verify(repository).updateStatus(List.of(1L, 5L), BookingStatus.APPROVED);
+        Mockito.verify(repository).updateStatus(List.of(2L), BookingStatus.REJECTED);
+        Mockito.verify(repository, Mockito.never()).save(any());
+        Mockito.verify(summaryService, Mockito.times(3)).refresh(anyLong());
+        InOrder locks = Mockito.inOrder(itemService);
+        locks.verify(itemService).getItemByIdForUpdate(11L);
+        locks.verify(itemService).getItemByIdForUpdate(15L);
+    }
+
+    @Test
+    public void updateAllRejectsApprovalsOverlappingStoredOrBatchBookingsTest() {
+        Item item = new Item(7, "name", "desc", true, 1, null);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        User booker = new User(5, "name", "email@mail.ru");
+        Mockito
+                .when(userService.getById(anyLong()))
+                .thenReturn(UserDto.builder().build());
+        Mockito
+                .when(repository.findAllWithItemByIdIn(any()))
+                .thenReturn(List.of(
+                        new Booking(1, start, start.plusDays(1), item, booker, BookingStatus.WAITING),
+                        new Booking(2, start.plusHours(12), start.plusDays(2), item, booker, BookingStatus.WAITING),
+                        new Booking(3, start.plusDays(5), start.plusDays(6), item, booker, BookingStatus.WAITING),
+                        new Booking(4, start.plusDays(8), start.plusDays(9), item, booker, BookingStatus.WAITING)));
+        Mockito
+                .when(repository.existsOverlappingExcept(eq(7L), any(), any(), any(), any()))
+                .thenAnswer(invocation -> start.plusDays(5).equals(invocation.getArgument(1)));
+
+        List<BookingBatchResultDto> result = bookingService.updateAll(1, List.of(
+                new BookingDecisionDto(1, true),
+                new BookingDecisionDto(2, true),
+                new BookingDecisionDto(3, true),
+                new BookingDecisionDto(4, false)));
+
+        Assertions.assertEquals(BookingBatchStatus.UPDATED, result.get(0).getStatus());
+        Assertions.assertEquals("Item with ID=7 is already booked for this period", result.get(1).getError());
+        Assertions.assertEquals("Item with ID=7 is already booked for this period", result.get(2).getError());
+        Assertions.assertEquals(BookingBatchStatus.UPDATED, result.get(3).getStatus());
+        Mockito.verify(repository).updateStatus(List.of(1L), BookingStatus.APPROVED);
+        Mockito.verify(repository).updateStatus(List.of(4L), BookingStatus.REJECTED);
+        Mockito.verify(itemService, Mockito.times(1)).getItemByIdForUpdate(7L);
+    }
 }
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.ItemBookingEnd;
+import ru.practicum.shareit.booking.dao.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.event.BookingsExpiredEvent;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryServiceImpl;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemBookingSummaryServiceTest {
+
+    @InjectMocks
+    private ItemBookingSummaryServiceImpl summaryService;
+
+    @Mock
+    private ItemBookingSummaryRepository repository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ItemRepository itemRepository;
+
+    private Item getItem() {
+        return new Item(1, "name", "desc", true, 1, null);
+    }
+
+    private Booking getBooking(long id, LocalDateTime start, LocalDateTime end) {
+        return new Booking(id, start, end, getItem(), new User(), BookingStatus.APPROVED);
+    }
+
+    private ItemBookingEnd getEnd(long itemId, LocalDateTime end) {
+        return new ItemBookingEnd() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getNearestEnd() {
+                return end;
+            }
+        };
+    }
+
+    @Test
+    public void refreshPicksLatestLastAndEarliestNextTest() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextStart = now.plusDays(2);
+        Mockito
+                .when(itemRepository.findByIdForUpdate(1L))
+                .thenReturn(Optional.of(getItem()));
+        Mockito
+                .when(bookingRepository.findLastBookingsByItemIds(anyCollection(), any(), any()))
+                .thenReturn(List.of(getBooking(1, now.minusDays(2), now.minusDays(1)),
+                        getBooking(3, now.minusDays(2), now.minusDays(1))));
+        Mockito
+                .when(bookingRepository.findNextBookingsByItemIds(anyCollection(), any(), any()))
+                .thenReturn(List.of(getBooking(5, nextStart, now.plusDays(3)),
+                        getBooking(4, nextStart, now.plusDays(3))));
+        Mockito
+                .when(bookingRepository.findNearestEndsAfter(anyCollection(), any(), any()))
+                .thenReturn(List.of(getEnd(1, now.plusDays(3))));
+        Mockito
+                .when(repository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ItemBookingSummary result = summaryService.refresh(1);
+
+        Assertions.assertEquals(1, result.getItemId());
+        Assertions.assertEquals(3, result.getLastBooking().getId());
+        Assertions.assertEquals(4, result.getNextBooking().getId());
+        Assertions.assertEquals(nextStart, result.getRefreshAt());
+    }
+
+    @Test
+    public void refreshWithoutBookingsNeverExpiresTest() {
+        Mockito
+                .when(repository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ItemBookingSummary result = summaryService.refresh(1);
+
+        Assertions.assertNull(result.getLastBooking());
+        Assertions.assertNull(result.getNextBooking());
+        Assertions.assertNull(result.getRefreshAt());
+    }
+
+    @Test
+    public void refreshFallsBackToArchiveWithoutHotLastBookingTest() {
+        LocalDateTime now = LocalDateTime.now();
+        Mockito
+                .when(bookingRepository.findLastArchivedByItemIds(eq(List.of(1L)), any(), eq(BookingStatus.REJECTED)))
+                .thenReturn(List.of(new ArchivedBooking(2, now.minusYears(2), now.minusYears(2).plusDays(1), 1, 5,
+                        BookingStatus.APPROVED)));
+        Mockito
+                .when(repository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ItemBookingSummary result = summaryService.refresh(1);
+
+        Assertions.assertNull(result.getLastBooking());
+        Assertions.assertEquals(2, result.getLastArchivedBooking().getId());
+    }
+
+    @Test
+    public void getSummariesRecomputesExpiredRowsWithoutWritesTest() {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary fresh = new ItemBookingSummary(1, null, null, now.plusDays(1));
+        ItemBookingSummary expired = new ItemBookingSummary(2, null, null, now.minusMinutes(1));
+        ItemBookingSummary otherExpired = new ItemBookingSummary(3, null, null, now.minusMinutes(2));
+        Item item = new Item(2, "name", "desc", true, 1, null);
+        Mockito
+                .when(repository.findAllByItemIdIn(anyCollection()))
+                .thenReturn(List.of(fresh, expired, otherExpired));
+        Mockito
+                .when(bookingRepository.findLastBookingsByItemIds(eq(List.of(2L, 3L)), any(), any()))
+                .thenReturn(List.of(new Booking(7, now.minusDays(2), now.minusDays(1), item, new User(),
+                        BookingStatus.APPROVED)));
+        Mockito
+                .when(bookingRepository.findNextBookingsByItemIds(eq(List.of(2L, 3L)), any(), any()))
+                .thenReturn(List.of());
+        Mockito
+                .when(bookingRepository.findNearestEndsAfter(eq(List.of(2L, 3L)), any(), any()))
+                .thenReturn(List.of(getEnd(3, now.plusHours(1))));
+
+        Map<Long, ItemBookingSummary> result = summaryService.getSummaries(List.of(1L, 2L, 3L, 4L));
+
+        Assertions.assertEquals(3, result.size());
+        Assertions.assertSame(fresh, result.get(1L));
+        Assertions.assertEquals(7, result.get(2L).getLastBooking().getId());
+        Assertions.assertNull(result.get(2L).getRefreshAt());
+        Assertions.assertNull(result.get(3L).getLastBooking());
+        Assertions.assertEquals(now.plusHours(1), result.get(3L).getRefreshAt());
+        Mockito.verify(repository, Mockito.never()).save(any());
+        Mockito.verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    public void userDeletionExpiresOnlyBookedItemsTest() {
+        summaryService.onUserDeleted(new UserDeletedEvent(1, List.of(2L), List.of(5L, 6L)));
+
+        Mockito.verify(repository).expireByItemIds(eq(List.of(5L, 6L)), any());
+    }
+
+    @Test
+    public void expiredBookingsExpireOnlyTheirItemsTest() {
+        summaryService.onBookingsExpired(new BookingsExpiredEvent(Map.of(4L, List.of(10L, 11L))));
+
+        Mockito.verify(repository).expireByItemIds(eq(Set.of(4L)), any());
+    }
+}
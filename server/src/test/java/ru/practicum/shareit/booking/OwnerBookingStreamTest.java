@@ -0,0 +1,160 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingOutput;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.event.BookingsExpiredEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.stream.OwnerBookingStream;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class OwnerBookingStreamTest {
+
+    private final BookingRepository repository = Mockito.mock(BookingRepository.class);
+    private final OwnerBookingStream stream = new OwnerBookingStream(repository, 2, 60000, 1,
+            new SimpleMeterRegistry());
+
+    @AfterEach
+    public void tearDown() {
+        stream.shutdown();
+    }
+
+    private BookingChangedEvent event(long bookingId, long ownerId) {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        return new BookingChangedEvent(new Booking(bookingId, start, start.plusDays(1),
+                new Item(1, "name", "desc", true, ownerId, null), new User(2, "booker", "booker@mail.ru"),
+                BookingStatus.WAITING));
+    }
+
+    private String take(BlockingQueue<String> events) throws InterruptedException {
+        String event = events.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(event);
+        return event;
+    }
+
+    @Test
+    public void deliversOnlyOwnersBookingsTest() throws Exception {
+        CapturingEmitter emitter = new CapturingEmitter(new CountDownLatch(0));
+        stream.subscribe(1, emitter);
+
+        stream.onBookingChanged(event(7, 2));
+        stream.onBookingChanged(event(8, 1));
+
+        Assertions.assertEquals("booking:8", take(emitter.events));
+        Assertions.assertTrue(emitter.events.isEmpty());
+    }
+
+    @Test
+    public void deliversExpiredBookingsToTheirOwnersTest() throws Exception {
+        CapturingEmitter emitter = new CapturingEmitter(new CountDownLatch(0));
+        stream.subscribe(1, emitter);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        Mockito
+                .when(repository.findAllByIdInAndOwnerIdIn(List.of(5L, 6L), Set.of(1L)))
+                .thenReturn(List.of(new BookingOutput(5, start, start.plusDays(1), BookingStatus.REJECTED,
+                        1, "name", "desc", true, 1, null, 2, "booker", "booker@mail.ru")));
+
+        stream.onBookingsExpired(new BookingsExpiredEvent(Map.of(1L, List.of(5L, 6L))));
+
+        Assertions.assertEquals("booking:5", take(emitter.events));
+        Assertions.assertTrue(emitter.events.isEmpty());
+    }
+
+    @Test
+    public void expiredBookingsAreNotLoadedWithoutSubscribersTest() {
+        stream.onBookingsExpired(new BookingsExpiredEvent(Map.of(1L, List.of(5L))));
+
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void dropsOldestEventsForSlowSubscriberTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CapturingEmitter emitter = new CapturingEmitter(release);
+        stream.subscribe(1, emitter);
+
+        stream.onBookingChanged(event(1, 1));
+        emitter.sending.await(5, TimeUnit.SECONDS);
+        for (long id = 2; id <= 6; id++) {
+            stream.onBookingChanged(event(id, 1));
+        }
+        release.countDown();
+
+        List<String> received = List.of(take(emitter.events), take(emitter.events), take(emitter.events),
+                take(emitter.events));
+        Assertions.assertEquals(List.of("booking:1", "dropped:3", "booking:5", "booking:6"), received);
+    }
+
+    @Test
+    public void removesSubscriptionWhenSendFailsTest() throws Exception {
+        CapturingEmitter emitter = new CapturingEmitter(new CountDownLatch(0));
+        emitter.failing = true;
+        stream.subscribe(1, emitter);
+
+        stream.onBookingChanged(event(1, 1));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stream.subscribers() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(0, stream.subscribers());
+    }
+
+    private static class CapturingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private volatile boolean failing;
+
+        CapturingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            sending.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<Object> data = builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .collect(Collectors.toList());
+            String text = data.stream().map(String::valueOf).collect(Collectors.joining());
+            String name = text.substring(text.indexOf("event:") + 6, text.indexOf('\n', text.indexOf("event:")));
+            Object payload = data.stream()
+                    .filter(item -> !(item instanceof String))
+                    .findFirst()
+                    .orElse(null);
+            String value = payload instanceof BookingOutput
+                    ? String.valueOf(((BookingOutput) payload).getId())
+                    : String.valueOf(payload);
+            events.add(name + ":" + value);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.item.dao.CommentRank;
+import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+public class CommentRepositoryTest {
+
+    @Autowired
+    private CommentRepository repository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final LocalDateTime created = LocalDateTime.of(2022, 1, 1, 12, 0);
+    private long busyItemId;
+    private long quietItemId;
+
+    @BeforeEach
+    public void setUp() {
+        User author = userRepository.save(new User(0, "author", "author@mail.ru"));
+        busyItemId = itemRepository.save(new Item(0, "Drill", "Cordless drill", true, author.getId(), null)).getId();
+        quietItemId = itemRepository.save(new Item(0, "Hammer", "Steel", true, author.getId(), null)).getId();
+        for (int i = 0; i < 5; i++) {
+            repository.save(new Comment(0, "text" + i, author, busyItemId, created.plusHours(i)));
+        }
+        repository.save(new Comment(0, "quiet", author, quietItemId, created));
+    }
+
+    private List<String> texts(List<CommentDto> comments) {
+        return comments.stream()
+                .map(CommentDto::getText)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void findLatestRanksCapsEachItemAndReportsTotalTest() {
+        List<CommentRank> ranks = repository.findLatestRanksByItemIds(List.of(busyItemId, quietItemId), 2);
+
+        Assertions.assertEquals(3, ranks.size());
+        Assertions.assertEquals(List.of("text4", "text3", "quiet"), ranks.stream()
+                .map(CommentRank::getText)
+                .collect(Collectors.toList()));
+        Assertions.assertEquals("author", ranks.get(0).getAuthorName());
+        Assertions.assertEquals(created.plusHours(4), ranks.get(0).getCreated());
+        ranks.forEach(rank -> Assertions.assertEquals(rank.getItemId() == busyItemId ? 5L : 1L, rank.getTotal()));
+    }
+
+    @Test
+    public void findPageByItemIdBeforeContinuesFromCursorTest() {
+        List<CommentDto> firstPage = repository.findPageByItemId(busyItemId, OffsetPageRequest.of(0, 2));
+        CommentDto last = firstPage.get(firstPage.size() - 1);
+
+        List<CommentDto> secondPage = repository.findPageByItemIdBefore(busyItemId, last.getCreated(), last.getId(),
+                OffsetPageRequest.of(0, 2));
+
+        Assertions.assertEquals(List.of("text4", "text3"), texts(firstPage));
+        Assertions.assertEquals(List.of("text2", "text1"), texts(secondPage));
+    }
+}
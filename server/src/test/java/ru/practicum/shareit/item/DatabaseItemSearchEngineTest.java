@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.DatabaseItemSearchEngine;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+public class DatabaseItemSearchEngineTest {
+
+    @InjectMocks
+    private DatabaseItemSearchEngine searchEngine;
+
+    @Mock
+    private ItemRepository repository;
+
+    private Item getItem() {
+        return new Item(1, "name", "desc", true, 1, null);
+    }
+
+    @Test
+    public void searchWithSizeNotIsNullTest() {
+        Mockito
+                .when(repository.search(eq("%name%"), any()))
+                .thenReturn(List.of(getItem()));
+
+        List<ItemDto> result = searchEngine.search("Name", 0, 1);
+
+        Assertions.assertEquals(1, result.get(0).getId());
+        Assertions.assertEquals("name", result.get(0).getName());
+        Assertions.assertEquals("desc", result.get(0).getDescription());
+        Assertions.assertEquals(true, result.get(0).getAvailable());
+        Assertions.assertNull(result.get(0).getRequestId());
+    }
+
+    @Test
+    public void searchWithSizeIsNullTest() {
+        Mockito
+                .when(repository.search(anyString(), any()))
+                .thenReturn(List.of(getItem()));
+
+        List<ItemDto> result = searchEngine.search("name", 0, null);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(1, result.get(0).getId());
+    }
+
+    @Test
+    public void searchEscapesWildcardsTest() {
+        Mockito
+                .when(repository.search(eq("%100\\%\\_%"), any()))
+                .thenReturn(List.of());
+
+        Assertions.assertTrue(searchEngine.search("100%_", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void searchFromMoreListSizeTest() {
+        Mockito
+                .when(repository.search(anyString(), any()))
+                .thenReturn(List.of());
+        Mockito
+                .when(repository.countSearch(anyString()))
+                .thenReturn(1L);
+
+        final IllegalArgumentException exception = Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> searchEngine.search("name", 2, 1));
+
+        Assertions.assertEquals("Parameter from must be lower size list", exception.getMessage());
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+public class InMemoryItemSearchEngineTest {
+
+    @InjectMocks
+    private InMemoryItemSearchEngine searchEngine;
+
+    @Mock
+    private ItemRepository repository;
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private final Map<Long, Item> rows = new HashMap<>();
+
+    @BeforeEach
+    public void setUp() {
+        List<Item> items = List.of(
+                new Item(1, "Дрель", "Аккумуляторная дрель", true, 1, null),
+                new Item(2, "Screwdriver", "Works like a drill", true, 1, null),
+                new Item(3, "Old drill", "Broken", false, 1, null),
+                new Item(4, "Drill", "Cordless, 18V", true, 2, null));
+        items.forEach(item -> rows.put(item.getId(), item));
+        Mockito
+                .when(repository.findAllByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(items);
+        searchEngine.rebuild();
+    }
+
+    private void stubRows() {
+        Mockito
+                .when(repository.findAllById(anyIterable()))
+                .thenAnswer(invocation -> {
+                    List<Item> result = new ArrayList<>();
+                    invocation.<Iterable<Long>>getArgument(0).forEach(id -> result.add(rows.get(id)));
+                    return result;
+                });
+    }
+
+    private void save(Item item) {
+        rows.put(item.getId(), item);
+        searchEngine.onItemSaved(new ItemSavedEvent(item));
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void searchRanksNameMatchesFirstAndSkipsUnavailableTest() {
+        stubRows();
+        Assertions.assertEquals(List.of(4L, 2L), ids(searchEngine.search("DRILL", 0, null)));
+    }
+
+    @Test
+    public void searchMatchesPrefixesOfAllTokensTest() {
+        stubRows();
+        Assertions.assertEquals(List.of(1L), ids(searchEngine.search("аккум дре", 0, 10)));
+        Assertions.assertEquals(List.of(4L), ids(searchEngine.search("cord 18", 0, 10)));
+        Assertions.assertTrue(searchEngine.search("cord hammer", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void searchPagesResultsTest() {
+        stubRows();
+        Assertions.assertEquals(List.of(2L), ids(searchEngine.search("drill", 1, 1)));
+
+        final IllegalArgumentException exception = Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> searchEngine.search("drill", 3, 1));
+
+        Assertions.assertEquals("Parameter from must be lower size list", exception.getMessage());
+    }
+
+    @Test
+    public void searchAvailableDropsItemsBookedInWindowTest() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(2);
+        Mockito
+                .when(bookingRepository.findBookedItemIds(eq(List.of(4L, 2L)), eq(start), eq(end), anyCollection()))
+                .thenReturn(List.of(4L));
+        stubRows();
+
+        Assertions.assertEquals(List.of(2L), ids(searchEngine.searchAvailable("drill", start, end, 0, 10)));
+    }
+
+    @Test
+    public void savedItemsAreReindexedTest() {
+        stubRows();
+        save(new Item(4, "Hammer", "Steel", true, 2, null));
+        save(new Item(5, "Drill press", "Bench", true, 2, null));
+
+        Assertions.assertEquals(List.of(5L, 2L), ids(searchEngine.search("drill", 0, null)));
+        Assertions.assertEquals(List.of(4L), ids(searchEngine.search("hamm", 0, null)));
+    }
+
+    @Test
+    public void outOfOrderUpdatesKeepPostingsSortedTest() {
+        stubRows();
+        for (long id = 100; id < 400; id++) {
+            save(new Item(id, "Drill " + id, "Spare", true, 3, null));
+        }
+        for (long id = 399; id >= 100; id -= 2) {
+            save(new Item(id, "Hammer " + id, "Spare", true, 3, null));
+        }
+        save(new Item(101, "Drill 101", "Spare", true, 3, null));
+
+        List<Long> expected = new ArrayList<>(List.of(4L));
+        expected.addAll(LongStream.range(100, 400)
+                .filter(id -> id % 2 == 0 || id == 101)
+                .boxed()
+                .collect(Collectors.toList()));
+        expected.add(2L);
+        Assertions.assertEquals(expected, ids(searchEngine.search("drill", 0, null)));
+        Assertions.assertEquals(149, searchEngine.search("hammer", 0, null).size());
+    }
+
+    @Test
+    public void deletedUserItemsAreRemovedWithoutRebuildTest() {
+        stubRows();
+        searchEngine.onUserDeleted(new UserDeletedEvent(2, List.of(4L), List.of()));
+
+        Assertions.assertEquals(List.of(2L), ids(searchEngine.search("drill", 0, null)));
+        Mockito.verify(repository).findAllByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+
+    @Test
+    public void rebuildReadsRepositoryInBatchesTest() {
+        Mockito.verify(repository).findAllByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+}
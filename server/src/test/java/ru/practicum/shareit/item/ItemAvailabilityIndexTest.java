@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.event.BookingsExpiredEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.cache.BookingInterval;
+import ru.practicum.shareit.item.cache.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ItemAvailabilityIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final ItemAvailabilityIndex index = new ItemAvailabilityIndex(10, 60000, new SimpleMeterRegistry());
+
+    private List<BookingInterval> hourly(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new BookingInterval(i + 1, BASE.plusHours(i * 2L), BASE.plusHours(i * 2L + 1)))
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> ids(List<BookingInterval> intervals) {
+        return intervals.stream()
+                .map(BookingInterval::getId)
+                .collect(Collectors.toList());
+    }
+
+    private BookingChangedEvent event(long id, long itemId, int startHour, int endHour, BookingStatus status) {
+        Item item = new Item(itemId, "name", "desc", true, 1, null);
+        return new BookingChangedEvent(new Booking(id, BASE.plusHours(startHour), BASE.plusHours(endHour), item,
+                new User(), status));
+    }
+
+    @Test
+    public void getBusyReturnsOnlyOverlappingIntervalsInStartOrderTest() {
+        List<BookingInterval> intervals = List.of(
+                new BookingInterval(3, BASE.plusHours(4), BASE.plusHours(5)),
+                new BookingInterval(1, BASE, BASE.plusHours(10)),
+                new BookingInterval(2, BASE.plusHours(2), BASE.plusHours(3)));
+
+        List<BookingInterval> busy = index.getBusy(1, BASE.plusHours(3), BASE.plusHours(5), id -> intervals);
+
+        Assertions.assertEquals(List.of(1L, 3L), ids(busy));
+        Assertions.assertEquals(BASE.plusHours(4), busy.get(1).getStart());
+    }
+
+    @Test
+    public void getBusyLoadsItemOnceTest() {
+        AtomicInteger loads = new AtomicInteger();
+
+        index.getBusy(1, BASE, BASE.plusDays(1), id -> {
+            loads.incrementAndGet();
+            return hourly(3);
+        });
+        List<BookingInterval> busy = index.getBusy(1, BASE, BASE.plusDays(1), id -> {
+            loads.incrementAndGet();
+            return hourly(3);
+        });
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(List.of(1L, 2L, 3L), ids(busy));
+    }
+
+    @Test
+    public void onBookingChangedUpdatesLoadedItemTest() {
+        index.getBusy(1, BASE, BASE.plusDays(1), id -> hourly(2));
+
+        index.onBookingChanged(event(10, 1, 5, 6, BookingStatus.WAITING));
+        index.onBookingChanged(event(1, 1, 0, 1, BookingStatus.REJECTED));
+
+        Assertions.assertEquals(List.of(2L, 10L), ids(index.getBusy(1, BASE, BASE.plusDays(1), id -> List.of())));
+        Assertions.assertEquals(2, index.intervals());
+    }
+
+    @Test
+    public void expiredBookingsAreRemovedFromLoadedItemsTest() {
+        index.getBusy(1, BASE, BASE.plusDays(1), id -> hourly(3));
+        index.getBusy(2, BASE, BASE.plusDays(1), id -> hourly(2));
+
+        index.onBookingsExpired(new BookingsExpiredEvent(Map.of(1L, List.of(1L, 3L), 3L, List.of(9L))));
+
+        Assertions.assertEquals(List.of(2L), ids(index.getBusy(1, BASE, BASE.plusDays(1), id -> List.of())));
+        Assertions.assertEquals(List.of(1L, 2L), ids(index.getBusy(2, BASE, BASE.plusDays(1), id -> List.of())));
+        Assertions.assertEquals(3, index.intervals());
+    }
+
+    @Test
+    public void loadIsCachedWhenOtherItemChangesMeanwhileTest() {
+        index.getBusy(1, BASE, BASE.plusDays(1), id -> {
+            index.onBookingChanged(event(10, 2, 5, 6, BookingStatus.WAITING));
+            index.onBookingsExpired(new BookingsExpiredEvent(Map.of(3L, List.of(11L))));
+            return hourly(2);
+        });
+
+        Assertions.assertEquals(1, index.size());
+    }
+
+    @Test
+    public void loadIsDroppedWhenSameItemChangesMeanwhileTest() {
+        index.getBusy(1, BASE, BASE.plusDays(1), id -> {
+            index.onBookingChanged(event(10, 1, 5, 6, BookingStatus.WAITING));
+            return hourly(2);
+        });
+
+        Assertions.assertEquals(0, index.size());
+    }
+
+    @Test
+    public void onBookingChangedIgnoresItemsNotLoadedTest() {
+        index.onBookingChanged(event(10, 1, 5, 6, BookingStatus.WAITING));
+
+        Assertions.assertEquals(0, index.size());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedItemsOverIntervalLimitTest() {
+        index.getBusy(1, BASE, BASE.plusDays(1), id -> hourly(4));
+        index.getBusy(2, BASE, BASE.plusDays(1), id -> hourly(4));
+        index.getBusy(1, BASE, BASE.plusDays(1), id -> hourly(4));
+        index.getBusy(3, BASE, BASE.plusDays(1), id -> hourly(4));
+
+        Assertions.assertEquals(2, index.size());
+        Assertions.assertEquals(8, index.intervals());
+        AtomicInteger loads = new AtomicInteger();
+        index.getBusy(1, BASE, BASE.plusDays(1), id -> {
+            loads.incrementAndGet();
+            return hourly(4);
+        });
+        Assertions.assertEquals(0, loads.get());
+    }
+
+    @Test
+    public void doesNotCacheItemsLargerThanIntervalLimitTest() {
+        List<BookingInterval> busy = index.getBusy(1, BASE, BASE.plusDays(2), id -> hourly(11));
+
+        Assertions.assertEquals(11, busy.size());
+        Assertions.assertEquals(0, index.size());
+    }
+
+    @Test
+    public void evictIdleDropsItemsNotReadWithinTimeoutTest() {
+        ItemAvailabilityIndex idleIndex = new ItemAvailabilityIndex(10, 0, new SimpleMeterRegistry());
+        idleIndex.getBusy(1, BASE, BASE.plusDays(1), id -> hourly(2));
+
+        idleIndex.evictIdle();
+
+        Assertions.assertEquals(0, idleIndex.size());
+        Assertions.assertEquals(0, idleIndex.intervals());
+    }
+}
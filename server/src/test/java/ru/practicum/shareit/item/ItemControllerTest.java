@@ -7,21 +7,31 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemBatchStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemsByOwnerDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -33,6 +43,9 @@ public class ItemControllerTest {
     @MockBean
     ItemService itemService;
 
+    @MockBean
+    UserService userService;
+
     @Autowired
     private MockMvc mvc;
 
@@ -115,7 +128,7 @@ public class ItemControllerTest {
 
     @Test
     void getItemsByUserId() throws Exception {
-        when(itemService.getItemsByUserId(anyLong(), anyInt(), anyInt()))
+        when(itemService.getItemsByUserId(anyLong(), anyInt(), anyInt(), any()))
                 .thenReturn(List.of(itemsByOwnerDto));
 
         mvc.perform(get("/items")
@@ -169,4 +182,82 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.text", is(commentDto.getText())))
                 .andExpect(jsonPath("$.authorName", is(commentDto.getAuthorName())));
     }
+
+    @Test
+    void getComments() throws Exception {
+        when(itemService.getComments(anyLong(), any(), anyInt()))
+                .thenReturn(CommentPageDto.builder()
+                        .comments(List.of(commentDto))
+                        .nextCursor("cursor")
+                        .build());
+
+        mvc.perform(get("/items/1/comments")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("size", String.valueOf(1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].id", is(commentDto.getId()), Long.class))
+                .andExpect(jsonPath("$.comments[0].authorName", is(commentDto.getAuthorName())))
+                .andExpect(jsonPath("$.nextCursor", is("cursor")));
+    }
+
+    @Test
+    void getMatchingRequests() throws Exception {
+        when(itemService.getMatchingRequests(1, 1, 5))
+                .thenReturn(List.of(ItemRequestDto.builder()
+                        .id(3)
+                        .description("need a drill")
+                        .build()));
+
+        mvc.perform(get("/items/1/matching-requests")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", String.valueOf(5)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(3L), Long.class))
+                .andExpect(jsonPath("$[0].description", is("need a drill")));
+    }
+
+    @Test
+    void addAll() throws Exception {
+        when(itemService.addAll(anyLong(), anyList()))
+                .thenReturn(List.of(ItemBatchResultDto.builder()
+                        .index(0)
+                        .status(ItemBatchStatus.CREATED)
+                        .item(itemDto)
+                        .build()));
+
+        mvc.perform(post("/items/batch")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1)
+                        .content(mapper.writeValueAsString(List.of(itemDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[0].item.name", is(itemDto.getName())));
+    }
+
+    @Test
+    void export() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ItemsByOwnerDto> action = invocation.getArgument(1);
+            action.accept(itemsByOwnerDto);
+            action.accept(itemsByOwnerDto);
+            return null;
+        }).when(itemService).exportItemsByUserId(anyLong(), any());
+
+        MvcResult result = mvc.perform(get("/items/export")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String line = mapper.writeValueAsString(itemsByOwnerDto) + "\n";
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + line));
+    }
 }
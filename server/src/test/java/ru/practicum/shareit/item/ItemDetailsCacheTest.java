@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.event.BookingsExpiredEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.cache.ItemOwnerBookings;
+import ru.practicum.shareit.item.dto.ItemsByOwnerDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ItemDetailsCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ItemDetailsCache cache = new ItemDetailsCache(2, registry);
+
+    private ItemsByOwnerDto getView(long id) {
+        return ItemsByOwnerDto.builder()
+                .id(id)
+                .name("name")
+                .ownerId(1)
+                .comments(List.of())
+                .build();
+    }
+
+    private double counter(String name, String result) {
+        return registry.get(name).tag("result", result).counter().count();
+    }
+
+    @Test
+    public void getViewCountsHitsAndMissesTest() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getView(1, id -> {
+            loads.incrementAndGet();
+            return getView(id);
+        });
+        ItemsByOwnerDto cached = cache.getView(1, id -> {
+            loads.incrementAndGet();
+            return getView(id);
+        });
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1, cached.getId());
+        Assertions.assertEquals(1, counter("shareit.item.cache.requests", "hit"));
+        Assertions.assertEquals(1, counter("shareit.item.cache.requests", "miss"));
+    }
+
+    @Test
+    public void getViewReturnsCopiesTest() {
+        cache.getView(1, this::getView);
+        cache.getView(1, this::getView).setName("changed");
+
+        Assertions.assertEquals("name", cache.getView(1, this::getView).getName());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvictedTest() {
+        cache.getView(1, this::getView);
+        cache.getView(2, this::getView);
+        cache.getView(1, this::getView);
+        cache.getView(3, this::getView);
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, registry.get("shareit.item.cache.evictions").counter().count());
+        cache.getView(1, this::getView);
+        Assertions.assertEquals(2, counter("shareit.item.cache.requests", "hit"));
+    }
+
+    @Test
+    public void bookingChangeInvalidatesItemTest() {
+        cache.getView(1, this::getView);
+        Item item = new Item(1, "name", "desc", true, 1, null);
+
+        cache.onBookingChanged(new BookingChangedEvent(new Booking(1, null, null, item, null, null)));
+
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void expiredBookingsInvalidateOnlyTheirItemsTest() {
+        cache.getView(1, this::getView);
+        cache.getView(2, this::getView);
+
+        cache.onBookingsExpired(new BookingsExpiredEvent(Map.of(1L, List.of(5L, 6L))));
+
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(2, cache.getView(2, id -> {
+            throw new AssertionError("Item 2 must stay cached");
+        }).getId());
+    }
+
+    @Test
+    public void loadStartedBeforeInvalidationIsNotCachedTest() {
+        cache.getView(1, id -> {
+            cache.invalidate(id);
+            return getView(id);
+        });
+
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void loadIsCachedWhenOtherItemIsInvalidatedMeanwhileTest() {
+        cache.getView(1, id -> {
+            cache.invalidate(2);
+            return getView(id);
+        });
+
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void loadStartedBeforeInvalidateAllIsNotCachedTest() {
+        cache.getView(1, id -> {
+            cache.invalidateAll();
+            return getView(id);
+        });
+
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void ownerBookingsExpireAtValidUntilTest() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getView(1, this::getView);
+
+        cache.getOwnerBookings(1, id -> {
+            loads.incrementAndGet();
+            return new ItemOwnerBookings(null, null, LocalDateTime.MAX);
+        });
+        cache.getOwnerBookings(1, id -> {
+            loads.incrementAndGet();
+            return new ItemOwnerBookings(null, null, LocalDateTime.now().minusSeconds(1));
+        });
+        cache.getOwnerBookings(1, id -> {
+            loads.incrementAndGet();
+            return new ItemOwnerBookings(null, null, LocalDateTime.MAX);
+        });
+
+        Assertions.assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.cache.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+public class ItemRepositoryTest {
+
+    @Autowired
+    private ItemRepository repository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private long ownerId;
+    private Item drill;
+    private Item screwdriver;
+
+    @BeforeEach
+    public void setUp() {
+        ownerId = userRepository.save(new User(0, "owner", "owner@mail.ru")).getId();
+        drill = repository.save(new Item(0, "Drill", "Cordless drill", true, ownerId, null));
+        screwdriver = repository.save(new Item(0, "Screwdriver", "Works like a drill", true, ownerId, null));
+        repository.save(new Item(0, "Old drill", "Broken", false, ownerId, null));
+        repository.save(new Item(0, "Hammer", "100% steel", true, ownerId, null));
+    }
+
+    private List<String> names(List<Item> items) {
+        return items.stream()
+                .map(Item::getName)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void searchRanksNameMatchesFirstAndSkipsUnavailableTest() {
+        List<Item> result = repository.search("%drill%", OffsetPageRequest.of(0, null));
+
+        Assertions.assertEquals(List.of("Drill", "Screwdriver"), names(result));
+        Assertions.assertEquals(2, repository.countSearch("%drill%"));
+    }
+
+    @Test
+    public void searchPagesInDatabaseTest() {
+        List<Item> result = repository.search("%drill%", OffsetPageRequest.of(1, 1));
+
+        Assertions.assertEquals(List.of("Screwdriver"), names(result));
+    }
+
+    @Test
+    public void searchTreatsWildcardsLiterallyTest() {
+        Assertions.assertEquals(List.of("Hammer"), names(repository.search("%100\\%%", OffsetPageRequest.of(0, 10))));
+        Assertions.assertTrue(repository.search("%\\_%", OffsetPageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    public void searchAvailableExcludesItemsWithOverlappingActiveBookingsTest() {
+        User booker = userRepository.save(new User(0, "booker", "booker@mail.ru"));
+        LocalDateTime start = LocalDateTime.of(2030, 1, 4, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 6, 0, 0);
+        bookingRepository.save(new Booking(0, start.minusDays(1), start.plusHours(1), drill, booker, BookingStatus.WAITING));
+        bookingRepository.save(new Booking(0, start, end, screwdriver, booker, BookingStatus.REJECTED));
+        bookingRepository.save(new Booking(0, end, end.plusDays(1), screwdriver, booker, BookingStatus.APPROVED));
+
+        List<Item> result = repository.searchAvailable("%drill%", start, end, ItemAvailabilityIndex.BUSY_STATUSES,
+                OffsetPageRequest.of(0, null));
+
+        Assertions.assertEquals(List.of("Screwdriver"), names(result));
+        Assertions.assertEquals(1, repository.countSearchAvailable("%drill%", start, end,
+                ItemAvailabilityIndex.BUSY_STATUSES));
+        Assertions.assertEquals(List.of("Drill", "Screwdriver"), names(repository.searchAvailable("%drill%",
+                end.plusDays(2), end.plusDays(3), ItemAvailabilityIndex.BUSY_STATUSES, OffsetPageRequest.of(0, null))));
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemBatchStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemsByOwnerDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Transactional
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ItemServiceStatementCountTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemBookingSummaryService summaryService;
+    @Autowired
+    private EntityManager entityManager;
+
+    private long createOwnerWithItems(String name, int count) {
+        User owner = userRepository.save(new User(0, name, name + "@mail.ru"));
+        User booker = userRepository.save(new User(0, name + "Booker", name + "Booker@mail.ru"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            Item item = itemRepository.save(new Item(0, "item" + i, "desc" + i, true, owner.getId(), null));
+            bookingRepository.save(new Booking(0, now.minusDays(3), now.minusDays(2), item, booker,
+                    BookingStatus.APPROVED));
+            bookingRepository.save(new Booking(0, now.minusDays(5), now.minusDays(4), item, booker,
+                    BookingStatus.APPROVED));
+            bookingRepository.save(new Booking(0, now.plusDays(2), now.plusDays(3), item, booker,
+                    BookingStatus.APPROVED));
+            commentRepository.save(new Comment(0, "text" + i, booker, item.getId(), now.minusDays(1)));
+            summaryService.refresh(item.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return owner.getId();
+    }
+
+    private Statistics clearStatistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private long countStatements(long ownerId, int expectedItems) {
+        Statistics statistics = clearStatistics();
+
+        List<ItemsByOwnerDto> result = itemService.getItemsByUserId(ownerId, 0, null, null);
+
+        Assertions.assertEquals(expectedItems, result.size());
+        result.forEach(item -> {
+            Assertions.assertNotNull(item.getLastBooking());
+            Assertions.assertNotNull(item.getNextBooking());
+            Assertions.assertEquals(1, item.getComments().size());
+            Assertions.assertEquals(1, item.getCommentsCount());
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    public void getItemsByUserIdUsesConstantStatementCountTest() {
+        long smallOwner = createOwnerWithItems("small", 2);
+        long largeOwner = createOwnerWithItems("large", 25);
+
+        long smallCount = countStatements(smallOwner, 2);
+        entityManager.clear();
+        long largeCount = countStatements(largeOwner, 25);
+
+        Assertions.assertEquals(smallCount, largeCount);
+        Assertions.assertTrue(largeCount <= 5);
+    }
+
+    @Test
+    public void addAllInsertsInJdbcBatchesTest() {
+        long ownerId = userRepository.save(new User(0, "batch", "batch@mail.ru")).getId();
+        entityManager.flush();
+        List<ItemDto> itemDtos = IntStream.range(0, 120)
+                .mapToObj(i -> ItemDto.builder()
+                        .name("item" + i)
+                        .description("desc" + i)
+                        .available(true)
+                        .build())
+                .collect(Collectors.toList());
+        Statistics statistics = clearStatistics();
+
+        List<ItemBatchResultDto> result = itemService.addAll(ownerId, itemDtos);
+        entityManager.flush();
+
+        Assertions.assertTrue(result.stream().allMatch(r -> r.getStatus() == ItemBatchStatus.CREATED));
+        Assertions.assertEquals(120, itemRepository.countByOwnerId(ownerId));
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 10);
+    }
+
+    @Test
+    public void exportItemsByUserIdStreamsEnrichedItemsTest() {
+        long ownerId = createOwnerWithItems("export", 25);
+        List<ItemsByOwnerDto> exported = new ArrayList<>();
+
+        itemService.exportItemsByUserId(ownerId, exported::add);
+
+        Assertions.assertEquals(25, exported.size());
+        exported.forEach(item -> {
+            Assertions.assertNotNull(item.getLastBooking());
+            Assertions.assertEquals(1, item.getCommentsCount());
+        });
+    }
+}
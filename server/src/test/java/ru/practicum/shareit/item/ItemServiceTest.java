@@ -1,32 +1,59 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.booking.dao.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.cache.BookingInterval;
+import ru.practicum.shareit.item.cache.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.cache.ItemDetailsCache;
+import ru.practicum.shareit.item.dao.CommentRank;
 import ru.practicum.shareit.item.dao.CommentRepository;
 import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemBatchStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemsByOwnerDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.search.ItemRequestMatcher;
+import ru.practicum.shareit.user.exception.IllegalUserException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.mockito.ArgumentMatchers.*;
 
@@ -43,12 +70,74 @@ public class ItemServiceTest {
     @Mock
     private BookingRepository bookingRepository;
     @Mock
+    private ItemBookingSummaryService summaryService;
+    @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private ItemRequestRepository requestRepository;
+    @Mock
+    private ItemSearchEngine searchEngine;
+    @Mock
+    private ItemRequestMatcher requestMatcher;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private ItemDetailsCache itemDetailsCache = new ItemDetailsCache(100, new SimpleMeterRegistry());
+    @Spy
+    private ItemAvailabilityIndex availabilityIndex = new ItemAvailabilityIndex(100, 60000, new SimpleMeterRegistry());
 
     private Item getItem() {
         return new Item(1, "name", "desc", true, 1, null);
     }
 
+    private ItemBookingSummary getSummary() {
+        LocalDateTime now = LocalDateTime.now();
+        return new ItemBookingSummary(1,
+                new Booking(1, now.minusDays(2), now.minusDays(1), getItem(), new User(), BookingStatus.APPROVED),
+                new Booking(2, now.plusDays(1), now.plusDays(2), getItem(), new User(), BookingStatus.APPROVED),
+                now.plusDays(1));
+    }
+
+    private CommentRank getCommentRank(long id, long itemId, long total) {
+        return new CommentRank() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getText() {
+                return "text";
+            }
+
+            @Override
+            public String getAuthorName() {
+                return "author";
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getCreated() {
+                return LocalDateTime.now();
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private CommentDto getCommentDto(long id, LocalDateTime created) {
+        return new CommentDto(id, "text", "author", 1, created);
+    }
+
     private ItemDto getItemDto() {
         return ItemDto.builder()
                 .name("name2")
@@ -65,6 +154,7 @@ public class ItemServiceTest {
 
         ItemDto result = itemService.add(1, getItemDto());
 
+        Mockito.verify(eventPublisher).publishEvent(new ItemSavedEvent(getItem()));
         Assertions.assertEquals(1, result.getId());
         Assertions.assertEquals("name", result.getName());
         Assertions.assertEquals("desc", result.getDescription());
@@ -160,6 +250,40 @@ public class ItemServiceTest {
         Assertions.assertNull(result.getRequestId());
     }
 
+    @Test
+    public void getByIdIsCachedAndKeepsOwnerFieldsApartTest() {
+        Mockito
+                .when(repository.findById(anyLong()))
+                .thenReturn(Optional.of(getItem()));
+        Mockito
+                .when(summaryService.getSummaries(anyCollection()))
+                .thenReturn(Map.of(1L, getSummary()));
+
+        ItemsByOwnerDto ownerView = itemService.getById(1, 1);
+        ItemsByOwnerDto otherView = itemService.getById(1, 2);
+        ItemsByOwnerDto cachedOwnerView = itemService.getById(1, 1);
+
+        Assertions.assertEquals(1, ownerView.getLastBooking().getId());
+        Assertions.assertNull(otherView.getLastBooking());
+        Assertions.assertNull(otherView.getNextBooking());
+        Assertions.assertEquals(1, cachedOwnerView.getLastBooking().getId());
+        Mockito.verify(repository, Mockito.times(1)).findById(1L);
+        Mockito.verify(summaryService, Mockito.times(1)).getSummaries(anyCollection());
+    }
+
+    @Test
+    public void getByIdReloadsAfterInvalidationTest() {
+        Mockito
+                .when(repository.findById(anyLong()))
+                .thenReturn(Optional.of(getItem()));
+
+        itemService.getById(1, 2);
+        itemDetailsCache.onItemSaved(new ItemSavedEvent(getItem()));
+        itemService.getById(1, 2);
+
+        Mockito.verify(repository, Mockito.times(2)).findById(1L);
+    }
+
     @Test
     public void getItemByIdNotExistsTest() {
         Mockito
@@ -176,10 +300,10 @@ public class ItemServiceTest {
     @Test
     public void getItemsByUserIdTest() {
         Mockito
-                .when(repository.findAllByOwnerId(anyLong()))
+                .when(repository.findAllByOwnerIdOrderByIdAsc(anyLong(), any()))
                 .thenReturn(List.of(getItem()));
 
-        List<ItemsByOwnerDto> result = itemService.getItemsByUserId(1, 0, 1);
+        List<ItemsByOwnerDto> result = itemService.getItemsByUserId(1, 0, 1, null);
 
         Assertions.assertEquals(1, result.get(0).getId());
         Assertions.assertEquals("name", result.get(0).getName());
@@ -192,8 +316,8 @@ public class ItemServiceTest {
     @Test
     public void getSearchWithSizeNotIsNullTest() {
         Mockito
-                .when(repository.findAllByNameOrDescriptionContainingIgnoreCase(anyString(), anyString()))
-                .thenReturn(List.of(getItem()));
+                .when(searchEngine.search(anyString(), anyInt(), any()))
+                .thenReturn(List.of(ItemMapper.mapToItemDto(getItem())));
 
         List<ItemDto> result = itemService.getSearch("name", 0, 1);
 
@@ -207,8 +331,8 @@ public class ItemServiceTest {
     @Test
     public void getSearchWithSizeIsNullTest() {
         Mockito
-                .when(repository.findAllByNameOrDescriptionContainingIgnoreCase(anyString(), anyString()))
-                .thenReturn(List.of(getItem()));
+                .when(searchEngine.search(anyString(), anyInt(), any()))
+                .thenReturn(List.of(ItemMapper.mapToItemDto(getItem())));
 
         List<ItemDto> result = itemService.getSearch("name", 0, null);
 
@@ -225,8 +349,8 @@ public class ItemServiceTest {
                 .when(userService.getById(anyLong()))
                 .thenReturn(UserDto.builder().build());
         Mockito
-                .when(bookingRepository.findByBookerIdAndItem_IdAndEndBefore(anyLong(), anyLong(), any()))
-                .thenReturn(new Booking());
+                .when(bookingRepository.existsFinishedByBookerIdAndItemId(anyLong(), anyLong(), any()))
+                .thenReturn(true);
         Mockito
                 .when(commentRepository.save(any()))
                 .thenReturn(new Comment(1, "text", new User(), 1, LocalDateTime.now()));
@@ -241,41 +365,41 @@ public class ItemServiceTest {
     @Test
     public void getItemsByUserIdWithSizeNotIsNullTest() {
         Mockito
-                .when(repository.findAllByOwnerId(anyLong()))
+                .when(repository.findAllByOwnerIdOrderByIdAsc(anyLong(), any()))
                 .thenReturn(List.of(getItem()));
         Mockito
-                .when(bookingRepository.findByItem_IdAndEndBeforeAndStatusNotOrderByEndDesc(anyLong(), any(), any()))
-                .thenReturn(new Booking(1, LocalDateTime.now(), LocalDateTime.now(), new Item(), new User(), BookingStatus.APPROVED));
+                .when(summaryService.getSummaries(anyCollection()))
+                .thenReturn(Map.of(1L, getSummary()));
         Mockito
-                .when(bookingRepository.findByItem_IdAndEndBeforeAndStatusNotOrderByEndDesc(anyLong(), any(), any()))
-                .thenReturn(new Booking(1, LocalDateTime.now(), LocalDateTime.now(), new Item(), new User(), BookingStatus.APPROVED));
-        Mockito.when(commentRepository.findAllByItemId(anyLong()))
-                .thenReturn(Set.of(new Comment(1, "text", new User(), 1, LocalDateTime.now())));
+                .when(commentRepository.findLatestRanksByItemIds(anyCollection(), anyInt()))
+                .thenReturn(List.of(getCommentRank(1, 1, 12)));
 
-        List<ItemsByOwnerDto> result = itemService.getItemsByUserId(1L, 0, 1);
+        List<ItemsByOwnerDto> result = itemService.getItemsByUserId(1L, 0, 1, null);
 
         Assertions.assertEquals(1, result.get(0).getId());
         Assertions.assertEquals("name", result.get(0).getName());
         Assertions.assertEquals("desc", result.get(0).getDescription());
         Assertions.assertEquals(true, result.get(0).getAvailable());
         Assertions.assertNull(result.get(0).getRequestId());
+        Assertions.assertEquals(1, result.get(0).getLastBooking().getId());
+        Assertions.assertEquals(2, result.get(0).getNextBooking().getId());
+        Assertions.assertEquals(1, result.get(0).getComments().size());
+        Assertions.assertEquals(12, result.get(0).getCommentsCount());
     }
 
     @Test
     public void getItemsByUserIdWithSizeIsNullTest() {
         Mockito
-                .when(repository.findAllByOwnerId(anyLong()))
+                .when(repository.findAllByOwnerIdOrderByIdAsc(anyLong(), any()))
                 .thenReturn(List.of(getItem()));
         Mockito
-                .when(bookingRepository.findByItem_IdAndEndBeforeAndStatusNotOrderByEndDesc(anyLong(), any(), any()))
-                .thenReturn(new Booking(1, LocalDateTime.now(), LocalDateTime.now(), new Item(), new User(), BookingStatus.APPROVED));
+                .when(summaryService.getSummaries(anyCollection()))
+                .thenReturn(Map.of(1L, getSummary()));
         Mockito
-                .when(bookingRepository.findByItem_IdAndEndBeforeAndStatusNotOrderByEndDesc(anyLong(), any(), any()))
-                .thenReturn(new Booking(1, LocalDateTime.now(), LocalDateTime.now(), new Item(), new User(), BookingStatus.APPROVED));
-        Mockito.when(commentRepository.findAllByItemId(anyLong()))
-                .thenReturn(Set.of(new Comment(1, "text", new User(), 1, LocalDateTime.now())));
+                .when(commentRepository.findLatestRanksByItemIds(anyCollection(), anyInt()))
+                .thenReturn(List.of(getCommentRank(1, 1, 12)));
 
-        List<ItemsByOwnerDto> result = itemService.getItemsByUserId(1L, 0, null);
+        List<ItemsByOwnerDto> result = itemService.getItemsByUserId(1L, 0, null, null);
 
         Assertions.assertEquals(1, result.get(0).getId());
         Assertions.assertEquals("name", result.get(0).getName());
@@ -283,4 +407,229 @@ public class ItemServiceTest {
         Assertions.assertEquals(true, result.get(0).getAvailable());
         Assertions.assertNull(result.get(0).getRequestId());
     }
+
+    @Test
+    public void getItemsByUserIdAfterIdTest() {
+        Mockito
+                .when(repository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(anyLong(), anyLong(), any()))
+                .thenReturn(List.of(new Item(2, "name2", "desc2", true, 1, null)));
+
+        List<ItemsByOwnerDto> result = itemService.getItemsByUserId(1L, 0, 1, 1L);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(2, result.get(0).getId());
+        Mockito.verify(repository, Mockito.never()).findAllByOwnerIdOrderByIdAsc(anyLong(), any());
+    }
+
+    @Test
+    public void getItemsByUserIdFromMoreListSizeTest() {
+        Mockito
+                .when(repository.findAllByOwnerIdOrderByIdAsc(anyLong(), any()))
+                .thenReturn(List.of());
+        Mockito
+                .when(repository.countByOwnerId(anyLong()))
+                .thenReturn(1L);
+
+        final IllegalArgumentException exception = Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> itemService.getItemsByUserId(1L, 2, 1, null));
+
+        Assertions.assertEquals("Parameter from must be lower size list", exception.getMessage());
+    }
+
+    @Test
+    public void getSearchWithEmptyTextTest() {
+        List<ItemDto> result = itemService.getSearch("", 0, 10);
+
+        Assertions.assertTrue(result.isEmpty());
+        Mockito.verifyNoInteractions(searchEngine);
+    }
+
+    @Test
+    public void getCommentsReturnsCursorWhenMoreRemainTest() {
+        LocalDateTime created = LocalDateTime.of(2022, 1, 1, 12, 0);
+        Mockito
+                .when(repository.findById(anyLong()))
+                .thenReturn(Optional.of(getItem()));
+        Mockito
+                .when(commentRepository.findPageByItemId(anyLong(), any()))
+                .thenReturn(List.of(getCommentDto(3, created), getCommentDto(2, created), getCommentDto(1, created)));
+
+        CommentPageDto result = itemService.getComments(1, null, 2);
+
+        Assertions.assertEquals(2, result.getComments().size());
+        Assertions.assertEquals(new KeysetCursor(created, 2), KeysetCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    public void getCommentsAfterCursorTest() {
+        LocalDateTime created = LocalDateTime.of(2022, 1, 1, 12, 0);
+        Mockito
+                .when(repository.findById(anyLong()))
+                .thenReturn(Optional.of(getItem()));
+        Mockito
+                .when(commentRepository.findPageByItemIdBefore(anyLong(), eq(created), eq(2L), any()))
+                .thenReturn(List.of(getCommentDto(1, created)));
+
+        CommentPageDto result = itemService.getComments(1, new KeysetCursor(created, 2).encode(), 2);
+
+        Assertions.assertEquals(1, result.getComments().size());
+        Assertions.assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void getCommentsWithMalformedCursorTest() {
+        Mockito
+                .when(repository.findById(anyLong()))
+                .thenReturn(Optional.of(getItem()));
+
+        final IllegalArgumentException exception = Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> itemService.getComments(1, "not a cursor", 2));
+
+        Assertions.assertEquals("Parameter cursor is malformed", exception.getMessage());
+    }
+
+    @Test
+    public void addAllSavesValidRowsAndReportsInvalidOnesTest() {
+        ItemDto invalid = ItemDto.builder()
+                .name(" ")
+                .description("desc")
+                .available(true)
+                .build();
+        ItemDto unknownRequest = ItemDto.builder()
+                .name("name")
+                .description("desc")
+                .available(true)
+                .requestId(7L)
+                .build();
+        Mockito
+                .when(requestRepository.findExistingIds(anyCollection()))
+                .thenReturn(List.of());
+        Mockito
+                .when(repository.saveAll(anyList()))
+                .thenReturn(List.of(getItem()));
+
+        List<ItemBatchResultDto> result = itemService.addAll(1, List.of(invalid, getItemDto(), unknownRequest));
+
+        Assertions.assertEquals(3, result.size());
+        Assertions.assertEquals(ItemBatchStatus.FAILED, result.get(0).getStatus());
+        Assertions.assertEquals("Field name must not be blank", result.get(0).getError());
+        Assertions.assertEquals(ItemBatchStatus.CREATED, result.get(1).getStatus());
+        Assertions.assertEquals(1, result.get(1).getItem().getId());
+        Assertions.assertEquals(ItemBatchStatus.FAILED, result.get(2).getStatus());
+        Assertions.assertEquals("Request with ID=7 doesn't exist", result.get(2).getError());
+        Mockito.verify(userService, Mockito.times(1)).getById(1);
+        Mockito.verify(repository).saveAll(argThat(items -> ((List<Item>) items).size() == 1));
+        Mockito.verify(eventPublisher).publishEvent(new ItemSavedEvent(getItem()));
+    }
+
+    @Test
+    public void updateAllChecksOwnershipPerRowTest() {
+        Item foreignItem = new Item(2, "name", "desc", true, 2, null);
+        Mockito
+                .when(repository.findAllById(anyCollection()))
+                .thenReturn(List.of(getItem(), foreignItem));
+        Mockito
+                .when(repository.saveAll(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ItemBatchResultDto> result = itemService.updateAll(1, List.of(
+                ItemDto.builder().id(1).name("new").build(),
+                ItemDto.builder().id(2).name("new").build(),
+                ItemDto.builder().id(3).name("new").build()));
+
+        Assertions.assertEquals(ItemBatchStatus.UPDATED, result.get(0).getStatus());
+        Assertions.assertEquals("new", result.get(0).getItem().getName());
+        Assertions.assertEquals("desc", result.get(0).getItem().getDescription());
+        Assertions.assertEquals("User with ID=1 does not have access to item with ID=2", result.get(1).getError());
+        Assertions.assertEquals("Item with ID=3 doesn't exist", result.get(2).getError());
+        Mockito.verify(repository, Mockito.times(1)).findAllById(anyCollection());
+    }
+
+    @Test
+    public void exportItemsByUserIdEnrichesInChunksTest() {
+        Mockito
+                .when(repository.streamAllByOwnerId(anyLong()))
+                .thenReturn(LongStream.rangeClosed(1, 250)
+                        .mapToObj(id -> new Item(id, "name", "desc", true, 1, null)));
+        List<ItemsByOwnerDto> exported = new ArrayList<>();
+
+        itemService.exportItemsByUserId(1, exported::add);
+
+        Assertions.assertEquals(LongStream.rangeClosed(1, 250).boxed().collect(Collectors.toList()),
+                exported.stream().map(ItemsByOwnerDto::getId).collect(Collectors.toList()));
+        Mockito.verify(summaryService, Mockito.times(3)).getSummaries(anyCollection());
+        Mockito.verify(entityManager, Mockito.times(3)).clear();
+    }
+
+    @Test
+    public void getAvailabilityMergesBusyIntervalsAndServesRepeatsFromIndexTest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 2, 0, 0);
+        Mockito
+                .when(repository.findById(1L))
+                .thenReturn(Optional.of(getItem()));
+        Mockito
+                .when(bookingRepository.findIntervalsByItemId(eq(1L), anyCollection()))
+                .thenReturn(List.of(
+                        new BookingInterval(1, from.minusHours(2), from.plusHours(2)),
+                        new BookingInterval(2, from.plusHours(1), from.plusHours(3)),
+                        new BookingInterval(3, from.plusHours(6), from.plusHours(8)),
+                        new BookingInterval(4, to.plusHours(1), to.plusHours(2))));
+
+        ItemAvailabilityDto result = itemService.getAvailability(1, from, to);
+        itemService.getAvailability(1, from, to);
+
+        Assertions.assertEquals(List.of(
+                new AvailabilityIntervalDto(from, from.plusHours(3)),
+                new AvailabilityIntervalDto(from.plusHours(6), from.plusHours(8))), result.getBusy());
+        Assertions.assertEquals(List.of(
+                new AvailabilityIntervalDto(from.plusHours(3), from.plusHours(6)),
+                new AvailabilityIntervalDto(from.plusHours(8), to)), result.getFree());
+        Mockito.verify(bookingRepository, Mockito.times(1)).findIntervalsByItemId(eq(1L), anyCollection());
+    }
+
+    @Test
+    public void getAvailabilityRejectsEmptyWindowTest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        final IllegalArgumentException exception = Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> itemService.getAvailability(1, from, from));
+
+        Assertions.assertEquals("Parameter from must be before to", exception.getMessage());
+    }
+
+    @Test
+    public void getMatchingRequestsKeepsMatcherOrderTest() {
+        User requester = new User(2, "requester", "requester@mail.ru");
+        LocalDateTime created = LocalDateTime.of(2022, 1, 1, 0, 0);
+        Mockito
+                .when(repository.findById(1L))
+                .thenReturn(Optional.of(getItem()));
+        Mockito
+                .when(requestMatcher.match("name desc", 1, 2))
+                .thenReturn(List.of(5L, 3L));
+        Mockito
+                .when(requestRepository.findAllWithRequesterByIdIn(List.of(5L, 3L)))
+                .thenReturn(List.of(new ItemRequest(3, "need desc", requester, created),
+                        new ItemRequest(5, "need name", requester, created)));
+
+        List<ItemRequestDto> result = itemService.getMatchingRequests(1, 1, 2);
+
+        Assertions.assertEquals(List.of(5L, 3L), result.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void getMatchingRequestsByNotOwnerTest() {
+        Mockito
+                .when(repository.findById(1L))
+                .thenReturn(Optional.of(getItem()));
+
+        Assertions.assertThrows(IllegalUserException.class, () -> itemService.getMatchingRequests(1, 2, 10));
+        Mockito.verifyNoInteractions(requestMatcher);
+    }
 }
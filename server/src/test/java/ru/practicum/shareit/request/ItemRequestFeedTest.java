@@ -0,0 +1,175 @@
+package ru.practicum.shareit.request;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.cache.ItemRequestFeed;
+import ru.practicum.shareit.request.dto.ItemRequestWithAnswerDto;
+import ru.practicum.shareit.request.event.ItemRequestAddedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+public class ItemRequestFeedTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ItemRequestFeed feed = new ItemRequestFeed(3, registry);
+
+    private ItemRequestWithAnswerDto getRequest(long id, long requesterId) {
+        return ItemRequestWithAnswerDto.builder()
+                .id(id)
+                .description("desc" + id)
+                .requester(new User(requesterId, "name", "email" + requesterId + "@mail.ru"))
+                .created(START.plusDays(id))
+                .items(new ArrayList<>())
+                .build();
+    }
+
+    private List<ItemRequestWithAnswerDto> newest(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> getRequest(id, id % 2 == 0 ? 2 : 3))
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> ids(Optional<List<ItemRequestWithAnswerDto>> page) {
+        return page.orElseThrow().stream()
+                .map(ItemRequestWithAnswerDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private double counter(String result) {
+        return registry.get("shareit.request.feed.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    public void pageIsServedFromWindowAfterOneLoadTest() {
+        AtomicInteger loads = new AtomicInteger();
+
+        feed.page(1, 0, 2, limit -> {
+            loads.incrementAndGet();
+            return newest(2, 1);
+        });
+        Optional<List<ItemRequestWithAnswerDto>> page = feed.page(1, 1, 2, limit -> {
+            loads.incrementAndGet();
+            return newest(2, 1);
+        });
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(List.of(1L), ids(page));
+        Assertions.assertEquals(2, counter("hit"));
+    }
+
+    @Test
+    public void pageSkipsCallerOwnRequestsTest() {
+        Optional<List<ItemRequestWithAnswerDto>> page = feed.page(2, 0, 5, limit -> newest(2, 1));
+
+        Assertions.assertEquals(List.of(1L), ids(page));
+    }
+
+    @Test
+    public void pageBeyondFullWindowFallsBackTest() {
+        Optional<List<ItemRequestWithAnswerDto>> page = feed.page(1, 2, 2, limit -> newest(6, 5, 4));
+
+        Assertions.assertTrue(page.isEmpty());
+        Assertions.assertEquals(1, counter("fallback"));
+    }
+
+    @Test
+    public void pageAfterCursorTest() {
+        Optional<List<ItemRequestWithAnswerDto>> page = feed.pageAfter(1,
+                new KeysetCursor(START.plusDays(3), 3), 1, limit -> newest(4, 3, 2));
+
+        Assertions.assertEquals(List.of(2L), ids(page));
+    }
+
+    @Test
+    public void addedRequestEvictsOldestTest() {
+        feed.page(1, 0, 1, limit -> newest(2, 1));
+        User requester = new User(2, "name", "email2@mail.ru");
+
+        feed.onRequestAdded(new ItemRequestAddedEvent(new ItemRequest(3, "desc3", requester, START.plusDays(3))));
+        feed.onRequestAdded(new ItemRequestAddedEvent(new ItemRequest(4, "desc4", requester, START.plusDays(4))));
+
+        Assertions.assertEquals(3, feed.size());
+        Assertions.assertEquals(List.of(4L, 3L, 2L), ids(feed.page(1, 0, 3, limit -> List.of())));
+        Assertions.assertTrue(feed.page(1, 0, 4, limit -> List.of()).isEmpty());
+    }
+
+    @Test
+    public void savedItemPatchesAnswersInPlaceTest() {
+        feed.page(1, 0, 1, limit -> newest(2, 1));
+
+        feed.onItemSaved(new ItemSavedEvent(new Item(10, "item", "desc", true, 5, 2L)));
+        Assertions.assertEquals(10, feed.page(1, 0, 1, limit -> List.of()).orElseThrow()
+                .get(0).getItems().get(0).getId());
+
+        feed.onItemSaved(new ItemSavedEvent(new Item(10, "item", "desc", true, 5, 1L)));
+        List<ItemRequestWithAnswerDto> page = feed.page(1, 0, 2, limit -> List.of()).orElseThrow();
+        Assertions.assertTrue(page.get(0).getItems().isEmpty());
+        Assertions.assertEquals(1, page.get(1).getItems().size());
+    }
+
+    @Test
+    public void itemWithoutRequestDoesNotDiscardConcurrentLoadTest() {
+        feed.page(1, 0, 1, limit -> {
+            feed.onItemSaved(new ItemSavedEvent(new Item(10, "item", "desc", true, 5, null)));
+            return newest(2, 1);
+        });
+
+        Assertions.assertEquals(2, feed.size());
+    }
+
+    @Test
+    public void answerSavedDuringLoadDiscardsItTest() {
+        feed.page(1, 0, 1, limit -> {
+            feed.onItemSaved(new ItemSavedEvent(new Item(10, "item", "desc", true, 5, 2L)));
+            return newest(2, 1);
+        });
+
+        Assertions.assertEquals(0, feed.size());
+    }
+
+    @Test
+    public void pageReturnsCopiesTest() {
+        feed.page(1, 0, 1, limit -> newest(2, 1)).orElseThrow().get(0).setDescription("changed");
+
+        Assertions.assertEquals("desc2", feed.page(1, 0, 1, limit -> List.of()).orElseThrow()
+                .get(0).getDescription());
+    }
+
+    @Test
+    public void userDeletionUnloadsFeedTest() {
+        feed.page(1, 0, 1, limit -> newest(2, 1));
+
+        feed.onUserDeleted(new UserDeletedEvent(2, List.of(), List.of()));
+
+        Assertions.assertEquals(0, feed.size());
+        Assertions.assertEquals(List.of(5L), ids(feed.page(1, 0, 1, limit -> newest(5))));
+    }
+
+    @Test
+    public void updatedRequesterIsPatchedInWindowTest() {
+        feed.page(1, 0, 2, limit -> newest(2, 1));
+
+        feed.onUserUpdated(new UserUpdatedEvent(new User(2, "renamed", "renamed@mail.ru")));
+
+        List<ItemRequestWithAnswerDto> page = feed.page(1, 0, 2, limit -> List.of()).orElseThrow();
+        Assertions.assertEquals("renamed", page.get(0).getRequester().getName());
+        Assertions.assertEquals("renamed@mail.ru", page.get(0).getRequester().getEmail());
+        Assertions.assertEquals("name", page.get(1).getRequester().getName());
+    }
+}
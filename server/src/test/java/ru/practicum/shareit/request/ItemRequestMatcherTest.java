@@ -0,0 +1,98 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.event.ItemRequestAddedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.search.ItemRequestMatcher;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemRequestMatcherTest {
+
+    @InjectMocks
+    private ItemRequestMatcher matcher;
+
+    @Mock
+    private ItemRequestRepository repository;
+
+    private final User requester = new User(2, "requester", "requester@mail.ru");
+
+    private ItemRequest getRequest(long id, String description) {
+        return new ItemRequest(id, description, requester, LocalDateTime.of(2022, 1, 1, 0, 0));
+    }
+
+    @BeforeEach
+    public void setUp() {
+        Mockito
+                .when(repository.findOpenAfter(anyLong(), any()))
+                .thenReturn(List.of(
+                        getRequest(1, "Need a cordless drill for the weekend"),
+                        getRequest(2, "Looking for a drill"),
+                        getRequest(3, "Camping tent for two people")));
+        matcher.rebuild();
+    }
+
+    @Test
+    public void matchRanksRequestsBySharedRareTokensTest() {
+        Assertions.assertEquals(List.of(1L, 2L), matcher.match("Drill Bosch, cordless", 1, 5));
+        Assertions.assertEquals(List.of(2L), matcher.match("drill", 1, 1));
+    }
+
+    @Test
+    public void matchSkipsOwnRequestsTest() {
+        Assertions.assertTrue(matcher.match("drill", 2, 5).isEmpty());
+    }
+
+    @Test
+    public void addedRequestIsIndexedIncrementallyTest() {
+        matcher.onRequestAdded(new ItemRequestAddedEvent(getRequest(4, "Tent pegs")));
+
+        Assertions.assertEquals(4, matcher.size());
+        Assertions.assertEquals(List.of(4L, 3L), matcher.match("tent pegs", 1, 5));
+        Mockito.verify(repository, Mockito.times(1)).findOpenAfter(anyLong(), any());
+    }
+
+    @Test
+    public void answeredRequestIsNoLongerMatchedTest() {
+        matcher.onItemSaved(new ItemSavedEvent(new Item(10, "drill", "cordless", true, 1, 2L)));
+
+        Assertions.assertEquals(2, matcher.size());
+        Assertions.assertEquals(List.of(1L), matcher.match("drill", 1, 5));
+    }
+
+    @Test
+    public void itemWithoutRequestKeepsIndexTest() {
+        matcher.onItemSaved(new ItemSavedEvent(new Item(10, "drill", "cordless", true, 1, null)));
+
+        Assertions.assertEquals(3, matcher.size());
+    }
+
+    @Test
+    public void deletedRequesterDocumentsAreRemovedWithoutRebuildTest() {
+        matcher.onRequestAdded(new ItemRequestAddedEvent(new ItemRequest(4, "Spare drill",
+                new User(5, "other", "other@mail.ru"), LocalDateTime.of(2022, 1, 1, 0, 0))));
+
+        matcher.onUserDeleted(new UserDeletedEvent(2, List.of(), List.of()));
+
+        Assertions.assertEquals(1, matcher.size());
+        Assertions.assertEquals(List.of(4L), matcher.match("drill", 1, 5));
+        Mockito.verify(repository, Mockito.times(1)).findOpenAfter(anyLong(), any());
+    }
+}
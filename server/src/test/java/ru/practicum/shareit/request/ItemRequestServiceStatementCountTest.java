@@ -0,0 +1,119 @@
+package ru.practicum.shareit.request;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.cache.ItemRequestFeed;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestWithAnswerDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+@Transactional
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ItemRequestServiceStatementCountTest {
+
+    @Autowired
+    private ItemRequestService requestService;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestFeed feed;
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+
+    private void createRequest(User requester, int index) {
+        ItemRequest request = requestRepository.save(new ItemRequest(0, "need " + index, requester,
+                LocalDateTime.now().minusMinutes(index)));
+        for (int i = 0; i < 2; i++) {
+            itemRepository.save(new Item(0, "answer" + i, "desc", true, owner.getId(), request.getId()));
+        }
+    }
+
+    private User createUser(String name) {
+        return userRepository.save(new User(0, name, name + "@requests.ru"));
+    }
+
+    private long countStatements(Supplier<List<ItemRequestWithAnswerDto>> call, int expectedRequests) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        List<ItemRequestWithAnswerDto> result = call.get();
+
+        Assertions.assertEquals(expectedRequests, result.size());
+        result.forEach(request -> Assertions.assertEquals(2, request.getItems().size()));
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    public void getUserRequestsUsesConstantStatementCountTest() {
+        owner = createUser("answerer");
+        User small = createUser("small");
+        User large = createUser("large");
+        for (int i = 0; i < 2; i++) {
+            createRequest(small, i);
+        }
+        for (int i = 0; i < 20; i++) {
+            createRequest(large, i);
+        }
+
+        long smallCount = countStatements(() -> requestService.getUserRequests(small.getId()), 2);
+        long largeCount = countStatements(() -> requestService.getUserRequests(large.getId()), 20);
+
+        Assertions.assertEquals(smallCount, largeCount);
+        Assertions.assertTrue(largeCount <= 3);
+    }
+
+    @Test
+    public void getRequestsUsesConstantStatementCountTest() {
+        owner = createUser("answerer");
+        User viewer = createUser("viewer");
+        for (int i = 0; i < 20; i++) {
+            createRequest(createUser("requester" + i), i);
+        }
+
+        feed.invalidate();
+        long smallCount = countStatements(() -> requestService.getRequests(viewer.getId(), 0, 2, null), 2);
+        feed.invalidate();
+        long largeCount = countStatements(() -> requestService.getRequests(viewer.getId(), 0, 20, null), 20);
+
+        Assertions.assertEquals(smallCount, largeCount);
+        Assertions.assertTrue(largeCount <= 2);
+    }
+
+    @Test
+    public void getRequestsFromLoadedFeedRunsNoStatementsTest() {
+        owner = createUser("answerer");
+        User viewer = createUser("viewer");
+        for (int i = 0; i < 5; i++) {
+            createRequest(createUser("requester" + i), i);
+        }
+        feed.invalidate();
+        countStatements(() -> requestService.getRequests(viewer.getId(), 0, 2, null), 2);
+
+        Assertions.assertEquals(0, countStatements(() -> requestService.getRequests(viewer.getId(), 2, 3, null), 3));
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.request;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.item.dto.ItemByRequestDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.stream.RequestAnswerStream;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class RequestAnswerStreamTest {
+
+    private final RequestAnswerStream stream = new RequestAnswerStream(60000, 1, new SimpleMeterRegistry());
+
+    @AfterEach
+    public void tearDown() {
+        stream.shutdown();
+    }
+
+    private ItemSavedEvent event(long itemId, Long requestId) {
+        return new ItemSavedEvent(new Item(itemId, "name", "desc", true, 1, requestId));
+    }
+
+    private ItemByRequestDto getAnswer(long itemId) {
+        return ItemByRequestDto.builder()
+                .id(itemId)
+                .name("name")
+                .requestId(1)
+                .build();
+    }
+
+    @Test
+    public void completesOnFirstAnswerToRequestTest() throws Exception {
+        CapturingEmitter emitter = new CapturingEmitter();
+        stream.subscribe(1, 0, emitter);
+
+        stream.onItemSaved(event(7, 2L));
+        stream.onItemSaved(event(8, null));
+        stream.onItemSaved(event(9, 1L));
+
+        Assertions.assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(9L), List.copyOf(emitter.answers));
+        Assertions.assertEquals(0, stream.subscribers());
+    }
+
+    @Test
+    public void skipsAnswersClientHasSeenTest() throws Exception {
+        CapturingEmitter emitter = new CapturingEmitter();
+        stream.subscribe(1, 5, emitter);
+
+        stream.onItemSaved(event(5, 1L));
+
+        Assertions.assertFalse(emitter.completed.await(100, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(1, stream.subscribers());
+
+        stream.onItemSaved(event(6, 1L));
+
+        Assertions.assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(6L), List.copyOf(emitter.answers));
+    }
+
+    @Test
+    public void publishedExistingAnswersAreSentOnceTest() throws Exception {
+        CapturingEmitter emitter = new CapturingEmitter();
+        stream.subscribe(1, 2, emitter);
+
+        stream.publish(1, List.of(getAnswer(2), getAnswer(3), getAnswer(4)));
+        stream.onItemSaved(event(5, 1L));
+
+        Assertions.assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(3L, 4L), List.copyOf(emitter.answers));
+    }
+
+    private static class CapturingEmitter extends SseEmitter {
+
+        private final BlockingQueue<Long> answers = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .filter(ItemByRequestDto.class::isInstance)
+                    .map(data -> ((ItemByRequestDto) data).getId())
+                    .forEach(answers::add);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+            super.complete();
+        }
+    }
+}
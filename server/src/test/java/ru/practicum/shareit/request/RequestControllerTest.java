@@ -7,7 +7,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.item.dto.ItemByRequestDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.controller.ItemRequestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswerDto;
@@ -23,7 +25,9 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
@@ -90,7 +94,7 @@ public class RequestControllerTest {
 
     @Test
     void getRequests() throws Exception {
-        when(requestService.getRequests(anyLong(), anyInt(), anyInt()))
+        when(requestService.getRequests(anyLong(), anyInt(), anyInt(), any()))
                 .thenReturn(List.of(requestWithAnswerDto));
 
         mvc.perform(get("/requests/all")
@@ -101,6 +105,8 @@ public class RequestControllerTest {
                         .param("from", String.valueOf(0))
                         .param("size", String.valueOf(1)))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor",
+                        new KeysetCursor(requestWithAnswerDto.getCreated(), requestWithAnswerDto.getId()).encode()))
                 .andExpect(jsonPath("$[0].id", is(requestWithAnswerDto.getId()), Long.class))
                 .andExpect(jsonPath("$[0].description", is(requestWithAnswerDto.getDescription())))
                 .andExpect(jsonPath("$[0].requester", is(requestWithAnswerDto.getRequester()), User.class))
@@ -123,4 +129,17 @@ public class RequestControllerTest {
                 .andExpect(jsonPath("$.requester", is(requestWithAnswerDto.getRequester()), User.class))
                 .andExpect(jsonPath("$.created", is(String.valueOf(requestWithAnswerDto.getCreated()))));
     }
+
+    @Test
+    void streamAnswers() throws Exception {
+        when(requestService.streamAnswers(1, 1, 4))
+                .thenReturn(new SseEmitter());
+
+        mvc.perform(get("/requests/1/answers/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("X-Sharer-User-Id", 1)
+                        .param("after", String.valueOf(4)))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
 }
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+public class RequestRepositoryTest {
+
+    private static final LocalDateTime MAX_CREATED = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Autowired
+    private ItemRequestRepository repository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private final LocalDateTime created = LocalDateTime.of(2024, 5, 1, 12, 0);
+    private long viewerId;
+    private long oldId;
+    private long firstTieId;
+    private long secondTieId;
+    private long newId;
+
+    @BeforeEach
+    public void setUp() {
+        User viewer = userRepository.save(new User(0, "viewer", "viewer@mail.ru"));
+        User requester = userRepository.save(new User(0, "requester", "requester@mail.ru"));
+        viewerId = viewer.getId();
+        oldId = save(requester, created.minusDays(1));
+        firstTieId = save(requester, created);
+        secondTieId = save(requester, created);
+        newId = save(requester, created.plusDays(1));
+        save(viewer, created.plusDays(2));
+    }
+
+    private long save(User requester, LocalDateTime time) {
+        return repository.save(new ItemRequest(0, "need", requester, time)).getId();
+    }
+
+    private List<Long> ids(List<ItemRequest> requests) {
+        return requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void findAllByRequesterIdNotPagesByOffsetTest() {
+        Assertions.assertEquals(List.of(newId, secondTieId, firstTieId, oldId),
+                ids(repository.findAllByRequesterIdNot(viewerId, MAX_CREATED, Long.MAX_VALUE, OffsetPageRequest.of(0, null))));
+        Assertions.assertEquals(List.of(secondTieId, firstTieId),
+                ids(repository.findAllByRequesterIdNot(viewerId, MAX_CREATED, Long.MAX_VALUE, OffsetPageRequest.of(1, 2))));
+    }
+
+    @Test
+    public void findAllByRequesterIdNotSeeksPastCursorTest() {
+        Assertions.assertEquals(List.of(firstTieId, oldId),
+                ids(repository.findAllByRequesterIdNot(viewerId, created, secondTieId, OffsetPageRequest.of(0, 10))));
+    }
+
+    @Test
+    public void findOpenAfterSkipsAnsweredRequestsTest() {
+        itemRepository.save(new Item(0, "answer", "desc", true, viewerId, firstTieId));
+
+        List<ItemRequest> open = repository.findOpenAfter(oldId, OffsetPageRequest.of(0, 2));
+
+        Assertions.assertEquals(List.of(secondTieId, newId), ids(open));
+    }
+}
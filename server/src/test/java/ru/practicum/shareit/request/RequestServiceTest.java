@@ -3,17 +3,25 @@ package ru.practicum.shareit.request;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.cache.ItemRequestFeed;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswerDto;
 import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
+import ru.practicum.shareit.request.stream.RequestAnswerStream;
+import ru.practicum.shareit.user.exception.IllegalUserException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -21,7 +29,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 
 @ExtendWith(MockitoExtension.class)
 public class RequestServiceTest {
@@ -35,6 +46,12 @@ public class RequestServiceTest {
     private UserService userService;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ItemRequestFeed feed;
+    @Mock
+    private RequestAnswerStream answerStream;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private ItemRequest getRequest() {
         return new ItemRequest(
@@ -66,13 +83,33 @@ public class RequestServiceTest {
         Assertions.assertEquals(LocalDateTime.of(2020, 1, 1, 1, 1), result.get(0).getCreated());
     }
 
+    @Test
+    public void getUserRequestsLoadsAnswersWithOneQueryTest() {
+        ItemRequest other = new ItemRequest(2, "desc2", new User(1, "name", "email@mail.ru"),
+                LocalDateTime.of(2019, 1, 1, 1, 1));
+        Mockito
+                .when(repository.findAllByRequester_IdOrderByCreatedDesc(anyLong()))
+                .thenReturn(List.of(getRequest(), other));
+        Mockito
+                .when(itemRepository.findAllByRequestIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(new Item(10, "first", "desc", true, 3, 1L),
+                        new Item(11, "second", "desc", true, 3, 1L)));
+
+        List<ItemRequestWithAnswerDto> result = requestService.getUserRequests(1);
+
+        Assertions.assertEquals(2, result.get(0).getItems().size());
+        Assertions.assertEquals(10, result.get(0).getItems().get(0).getId());
+        Assertions.assertTrue(result.get(1).getItems().isEmpty());
+        Mockito.verify(itemRepository, Mockito.never()).findAllByRequestId(anyLong());
+    }
+
     @Test
     public void getRequestsTest() {
         Mockito
-                .when(repository.findAllByRequester_IdNotOrderByCreatedDesc(anyLong()))
+                .when(repository.findAllByRequesterIdNot(anyLong(), any(), anyLong(), any()))
                 .thenReturn(List.of(getRequest()));
 
-        List<ItemRequestWithAnswerDto> result = requestService.getRequests(1, 0, 1);
+        List<ItemRequestWithAnswerDto> result = requestService.getRequests(1, 0, 1, null);
 
         Assertions.assertEquals(1, result.get(0).getId());
         Assertions.assertEquals("desc", result.get(0).getDescription());
@@ -83,10 +120,10 @@ public class RequestServiceTest {
     @Test
     public void getRequestsWithSizeIsNullTest() {
         Mockito
-                .when(repository.findAllByRequester_IdNotOrderByCreatedDesc(anyLong()))
+                .when(repository.findAllByRequesterIdNot(anyLong(), any(), anyLong(), any()))
                 .thenReturn(List.of(getRequest()));
 
-        List<ItemRequestWithAnswerDto> result = requestService.getRequests(1, 0, null);
+        List<ItemRequestWithAnswerDto> result = requestService.getRequests(1, 0, null, null);
 
         Assertions.assertEquals(1, result.get(0).getId());
         Assertions.assertEquals("desc", result.get(0).getDescription());
@@ -94,6 +131,58 @@ public class RequestServiceTest {
         Assertions.assertEquals(LocalDateTime.of(2020, 1, 1, 1, 1), result.get(0).getCreated());
     }
 
+    @Test
+    public void getRequestsPagesInDatabaseTest() {
+        Mockito
+                .when(repository.findAllByRequesterIdNot(eq(1L), any(), eq(Long.MAX_VALUE), eq(OffsetPageRequest.of(4, 2))))
+                .thenReturn(List.of(getRequest()));
+
+        List<ItemRequestWithAnswerDto> result = requestService.getRequests(1, 4, 2, null);
+
+        Assertions.assertEquals(1, result.size());
+    }
+
+    @Test
+    public void getRequestsWithCursorTest() {
+        LocalDateTime created = LocalDateTime.of(2022, 1, 1, 12, 0);
+        Mockito
+                .when(repository.findAllByRequesterIdNot(1L, created, 5L, OffsetPageRequest.of(0, 2)))
+                .thenReturn(List.of(getRequest()));
+
+        List<ItemRequestWithAnswerDto> result = requestService.getRequests(1, 0, 2,
+                new KeysetCursor(created, 5).encode());
+
+        Assertions.assertEquals(1, result.get(0).getId());
+    }
+
+    @Test
+    public void getRequestsFromEqualsListSizeTest() {
+        Mockito
+                .when(repository.findAllByRequesterIdNot(anyLong(), any(), anyLong(), eq(OffsetPageRequest.of(1, 1))))
+                .thenReturn(List.of());
+        Mockito
+                .when(repository.findAllByRequesterIdNot(anyLong(), any(), anyLong(), eq(OffsetPageRequest.of(0, 1))))
+                .thenReturn(List.of(getRequest()));
+
+        Assertions.assertTrue(requestService.getRequests(1, 1, 1, null).isEmpty());
+    }
+
+    @Test
+    public void getRequestsServedFromFeedTest() {
+        ItemRequestWithAnswerDto cached = ItemRequestWithAnswerDto.builder()
+                .id(1)
+                .items(List.of())
+                .build();
+        Mockito
+                .when(feed.page(eq(1L), eq(0), eq(1), any()))
+                .thenReturn(Optional.of(List.of(cached)));
+
+        List<ItemRequestWithAnswerDto> result = requestService.getRequests(1, 0, 1, null);
+
+        Assertions.assertEquals(List.of(cached), result);
+        Mockito.verifyNoInteractions(repository, itemRepository);
+    }
+
     @Test
     public void getRequestByIdTest() {
         Mockito
@@ -124,15 +213,41 @@ public class RequestServiceTest {
     @Test
     public void getRequestsWithFromMoreListSizeTest() {
         Mockito
-                .when(repository.findAllByRequester_IdNotOrderByCreatedDesc(anyLong()))
-                .thenReturn(List.of(getRequest()));
+                .when(repository.findAllByRequesterIdNot(anyLong(), any(), anyLong(), any()))
+                .thenReturn(List.of());
 
         final IllegalArgumentException exception = Assertions.assertThrows(
                 IllegalArgumentException.class,
-                () -> requestService.getRequests(1, 2, 1));
+                () -> requestService.getRequests(1, 2, 1, null));
 
         Assertions.assertEquals("Parameter from must be lower size list", exception.getMessage());
     }
 
+    @Test
+    public void streamAnswersSubscribesBeforeLoadingExistingAnswersTest() {
+        Mockito
+                .when(repository.findById(1L))
+                .thenReturn(Optional.of(getRequest()));
+        Mockito
+                .when(itemRepository.findAllByRequestIdAndIdGreaterThanOrderByIdAsc(1, 3))
+                .thenReturn(List.of(new Item(4, "item", "desc", true, 2, 1L)));
+
+        requestService.streamAnswers(1, 1, 3);
 
+        InOrder inOrder = Mockito.inOrder(answerStream, itemRepository);
+        inOrder.verify(answerStream).subscribe(1, 3);
+        inOrder.verify(itemRepository).findAllByRequestIdAndIdGreaterThanOrderByIdAsc(1, 3);
+        inOrder.verify(answerStream).publish(eq(1L), argThat(answers -> answers.size() == 1
+                && answers.get(0).getId() == 4));
+    }
+
+    @Test
+    public void streamAnswersByNotRequesterTest() {
+        Mockito
+                .when(repository.findById(1L))
+                .thenReturn(Optional.of(getRequest()));
+
+        Assertions.assertThrows(IllegalUserException.class, () -> requestService.streamAnswers(1, 2, 0));
+        Mockito.verifyNoInteractions(answerStream);
+    }
 }
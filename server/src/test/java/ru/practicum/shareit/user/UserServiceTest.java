@@ -7,12 +7,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.user.exception.IllegalUserException;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.DuplicateEmailException;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import java.util.List;
@@ -26,6 +31,12 @@ public class UserServiceTest {
 
     @Mock
     private UserRepository repository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private User getUser() {
         return new User(1, "name", "asd@mail.ru");
@@ -130,6 +141,7 @@ public class UserServiceTest {
         Assertions.assertEquals(1, result.getId());
         Assertions.assertEquals("name", result.getName());
         Assertions.assertEquals("asd@mail.ru", result.getEmail());
+        Mockito.verify(eventPublisher).publishEvent(new UserUpdatedEvent(getUser()));
     }
 
     @Test
@@ -141,11 +153,18 @@ public class UserServiceTest {
         Mockito
                 .when(repository.findById(Mockito.anyLong()))
                 .thenReturn(Optional.of(getUser()));
+        Mockito
+                .when(itemRepository.findIdsDeletedWithUser(1))
+                .thenReturn(List.of(3L, 5L));
+        Mockito
+                .when(bookingRepository.findItemIdsByBookerId(1))
+                .thenReturn(List.of(7L));
         userService.deleteById(1);
 
         List<UserDto> result = userService.getAll();
 
         Assertions.assertEquals(List.of(), result);
+        Mockito.verify(eventPublisher).publishEvent(new UserDeletedEvent(1, List.of(3L, 5L), List.of(7L)));
     }
 
     @Test